@@ -0,0 +1,81 @@
+package com.example.kriptobot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bir refresh'te geçilen "üstüne çıkınca" eşiklerini bulmak: tüm alarmları taramak ile
+ * sembol başına sıralı ThresholdIndex'te iki ikili arama. Fiyatlar %1 civarı oynar,
+ * eşikler fiyatın ±%20'sine dağılır; indeks yolu sadece aralık sınırlarını okur.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlertBenchmark {
+
+    private static final int SYMBOLS = 250;
+
+    @Param({"10000", "100000"})
+    int alerts;
+
+    double[] from = new double[SYMBOLS];
+    double[] to = new double[SYMBOLS];
+    // Tarama yolu: alarm başına (sembol, eşik)
+    int[] alertSymbol;
+    double[] alertThreshold;
+    ThresholdIndex[] index = new ThresholdIndex[SYMBOLS];
+
+    @Setup
+    public void setup() {
+        Random r = new Random(7);
+        for (int s = 0; s < SYMBOLS; s++) {
+            from[s] = 1 + r.nextDouble() * 1000;
+            to[s] = from[s] * (1 + r.nextGaussian() * 0.01);
+            index[s] = new ThresholdIndex();
+        }
+        alertSymbol = new int[alerts];
+        alertThreshold = new double[alerts];
+        for (int i = 0; i < alerts; i++) {
+            int s = r.nextInt(SYMBOLS);
+            double t = from[s] * (0.8 + r.nextDouble() * 0.4);
+            alertSymbol[i] = s;
+            alertThreshold[i] = t;
+            index[s].add(t, i);
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        int crossed = 0;
+        for (int i = 0; i < alerts; i++) {
+            int s = alertSymbol[i];
+            double t = alertThreshold[i];
+            if (from[s] <= t && t < to[s]) crossed++;
+        }
+        return crossed;
+    }
+
+    @Benchmark
+    public int indexed() {
+        int crossed = 0;
+        for (int s = 0; s < SYMBOLS; s++) {
+            if (to[s] > from[s]) crossed += index[s].lowerBound(to[s]) - index[s].lowerBound(from[s]);
+        }
+        return crossed;
+    }
+}
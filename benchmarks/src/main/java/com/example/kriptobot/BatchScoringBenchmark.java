@@ -0,0 +1,68 @@
+package com.example.kriptobot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tüm evreni puanlama: satır satır analyzeTrend + packSignal ile BatchSignalScorer.
+ * Girdiler rastgele olduğu için skaler yolda dal tahmini sık şaşar; batch yolunda dal yok.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchScoringBenchmark {
+
+    @Param({"250", "5000", "50000"})
+    int symbols;
+
+    MarketTable table;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(13);
+        table = new MarketTable(symbols);
+        for (int k = 0; k < symbols; k++) {
+            int i = table.addRow();
+            table.symbol[i] = "S" + k;
+            table.change1h[i] = r.nextGaussian() * 2;
+            table.change24h[i] = r.nextGaussian() * 6;
+            table.change7d[i] = r.nextGaussian() * 15;
+            table.change30d[i] = r.nextGaussian() * 30;
+            table.rsi[i] = r.nextDouble() * 100;
+            table.macdHistogram[i] = r.nextGaussian();
+            table.volumeMultiplier[i] = r.nextDouble() * 3;
+        }
+    }
+
+    @Benchmark
+    public long[] scalar() {
+        MarketTable t = table;
+        for (int i = 0; i < t.size; i++) {
+            int trend = TechnicalIndicators.analyzeTrend(t.change1h[i], t.change24h[i], t.change7d[i], t.change30d[i]);
+            t.trendScore[i] = trend;
+            t.signal[i] = TechnicalIndicators.packSignal(t.rsi[i], t.macdHistogram[i], trend, t.volumeMultiplier[i]);
+        }
+        return t.signal;
+    }
+
+    @Benchmark
+    public long[] batch() {
+        BatchSignalScorer.score(table);
+        return table.signal;
+    }
+}
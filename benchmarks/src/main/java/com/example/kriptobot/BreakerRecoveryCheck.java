@@ -0,0 +1,115 @@
+package com.example.kriptobot;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Devre kesici kesinti sonrası toparlanma kontrolü (düz main, yerel stub'a karşı).
+ * Stub CoinGecko önce 503 döner, devre açılır; stub düzelince açık süre beklenir ve
+ * çok sayfalı market fetch'i, aynı anda başlayan tek bir FX isteğiyle birlikte denenir.
+ * Sayfaların hepsi CoinGecko'dan gelmeli (Binance fallback'e düşmemeli). Başarısızsa çıkış kodu 1.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.kriptobot.BreakerRecoveryCheck
+ * </pre>
+ */
+public final class BreakerRecoveryCheck {
+
+    private static final int PAGES = 8;
+    private static final int COINS_PER_PAGE = 5;
+    private static final Duration OPEN = Duration.ofSeconds(2);
+
+    public static void main(String[] args) throws Exception {
+        AtomicBoolean down = new AtomicBoolean(true);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            byte[] body;
+            int status = 200;
+            if (down.get()) {
+                status = 503;
+                body = new byte[0];
+            } else if (exchange.getRequestURI().getPath().endsWith("/coins/markets")) {
+                int page = 1;
+                for (String param : query.split("&")) {
+                    if (param.startsWith("page=")) page = Integer.parseInt(param.substring(5));
+                }
+                body = page(page);
+            } else {
+                body = "{\"rates\":{\"usd\":{\"value\":67000}}}".getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            if (body.length > 0) exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        // Sıkı limit yok, retry yok: her 503 devre için hemen hata sayılır
+        UpstreamClient upstream = new UpstreamClient(new SimpleMeterRegistry(), Duration.ofSeconds(5), 16,
+                2, OPEN, 2, 6000, 100, 0, 6000, 100, 0);
+        CoinGeckoMarketFetcher fetcher = new CoinGeckoMarketFetcher(upstream, new SimpleMeterRegistry(),
+                base, PAGES, 250);
+
+        boolean ok = true;
+        try {
+            fetcher.fetchAll().get(10, TimeUnit.SECONDS);
+            System.out.println("FAIL: fetch succeeded while stub is down");
+            ok = false;
+        } catch (Exception expected) {
+            // 503'ler devreyi açar
+        }
+        ok &= check(!fetcher.isAvailable(), "circuit opens during outage");
+
+        down.set(false);
+        Thread.sleep(OPEN.toMillis() + 200);
+        ok &= check(fetcher.isAvailable(), "circuit half-open after " + OPEN);
+
+        // FX refresh'i deneme hakkını market'ten önce alsa bile market reddedilmemeli
+        CompletableFuture<?> fx = upstream.send(UpstreamClient.Provider.COINGECKO,
+                UpstreamClient.get(base + "/exchange_rates", Duration.ofSeconds(5)));
+        try {
+            MarketTable table = fetcher.fetchAll().get(10, TimeUnit.SECONDS);
+            ok &= check(table.size() == PAGES * COINS_PER_PAGE,
+                    "post-open refresh returns all " + PAGES + " CoinGecko pages (" + table.size() + " coins)");
+        } catch (Exception e) {
+            ok &= check(false, "post-open refresh returns CoinGecko data: " + e);
+        }
+        fx.get(10, TimeUnit.SECONDS);
+        Object circuit = ((Map<?, ?>) upstream.status().get("coingecko")).get("circuit");
+        ok &= check("CLOSED".equals(circuit), "circuit closed after recovery (" + circuit + ")");
+
+        server.stop(0);
+        upstream.shutdown();
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static boolean check(boolean condition, String what) {
+        System.out.println((condition ? "  pass  " : "  FAIL  ") + what);
+        return condition;
+    }
+
+    private static byte[] page(int page) {
+        StringBuilder json = new StringBuilder("[");
+        for (int k = 0; k < COINS_PER_PAGE; k++) {
+            if (k > 0) json.append(',');
+            int rank = (page - 1) * COINS_PER_PAGE + k + 1;
+            json.append("{\"id\":\"coin-").append(rank).append("\",\"symbol\":\"c").append(rank)
+                    .append("\",\"current_price\":").append(rank)
+                    .append(",\"market_cap\":").append(1_000_000 - rank)
+                    .append(",\"total_volume\":1000,\"price_change_percentage_24h\":1.5}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.kriptobot;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link BinanceCandleSource} kontrolü (düz main, yerel /api/v3/klines stub'ına karşı).
+ * Stub gerçek Binance gibi son eleman olarak henüz kapanmamış mumu döner: closeTime'ı gelecekte,
+ * hacmi saatin başındaki gibi küçük. Kaynak bir fazla mum istemeli ve açık mumu atmalı; hacim
+ * çarpanı ve son kapanış sadece kapanmış mumlardan gelmeli. Bilinmeyen sembol (400) ve URL'e
+ * giremeyecek sembol de denenir. Başarısızsa çıkış kodu 1.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.kriptobot.CandleSourceCheck
+ * </pre>
+ */
+public final class CandleSourceCheck {
+
+    private static final int LIMIT = 100;
+    private static final long HOUR = 3_600_000;
+    private static final double CLOSED_VOLUME = 1000;
+    private static final double OPEN_VOLUME = 10;
+    private static final double CLOSED_CLOSE = 100;
+    private static final double OPEN_CLOSE = 150;
+
+    public static void main(String[] args) throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicReference<String> lastQuery = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v3/klines", exchange -> {
+            requests.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            lastQuery.set(query);
+            String symbol = "";
+            int limit = 500;
+            for (String param : query.split("&")) {
+                if (param.startsWith("symbol=")) symbol = param.substring(7);
+                if (param.startsWith("limit=")) limit = Integer.parseInt(param.substring(6));
+            }
+            int status = 200;
+            byte[] body;
+            if (!symbol.equals("BTCUSDT")) {
+                status = 400;
+                body = "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}".getBytes(StandardCharsets.UTF_8);
+            } else {
+                body = klines(limit, System.currentTimeMillis());
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        UpstreamClient upstream = new UpstreamClient(new SimpleMeterRegistry(), Duration.ofSeconds(5), 16,
+                5, Duration.ofSeconds(30), 2, 6000, 100, 0, 6000, 100, 0);
+        BinanceCandleSource source = new BinanceCandleSource(upstream, base);
+
+        boolean ok = true;
+        CandleSeries series = source.fetch("BTC", "1h", LIMIT).get(10, TimeUnit.SECONDS);
+        ok &= check(lastQuery.get().contains("limit=" + (LIMIT + 1)),
+                "requests one extra candle (" + lastQuery.get() + ")");
+        ok &= check(series.size() == LIMIT, "open candle dropped, " + LIMIT + " closed remain (" + series.size() + ")");
+        ok &= check(series.close(series.size() - 1) == CLOSED_CLOSE,
+                "last candle is the last closed one (close " + series.close(series.size() - 1) + ")");
+
+        CandleIndicators ind = series.indicators();
+        ok &= check(Math.abs(ind.volumeMultiplier() - 1.0) < 1e-9,
+                "volume multiplier from closed candles only (" + ind.volumeMultiplier() + ")");
+        ok &= check(ind.lastClose() == CLOSED_CLOSE, "last close from closed candles (" + ind.lastClose() + ")");
+
+        try {
+            source.fetch("NOPE", "1h", LIMIT).get(10, TimeUnit.SECONDS);
+            ok &= check(false, "unknown symbol fails");
+        } catch (ExecutionException e) {
+            ok &= check(e.getCause() instanceof CandleSource.UnsupportedSymbolException,
+                    "unknown symbol (HTTP 400) -> UnsupportedSymbolException");
+        }
+
+        int before = requests.get();
+        try {
+            source.fetch("USD+", "1h", LIMIT).get(10, TimeUnit.SECONDS);
+            ok &= check(false, "URL-unsafe symbol fails");
+        } catch (ExecutionException e) {
+            ok &= check(e.getCause() instanceof CandleSource.UnsupportedSymbolException
+                            && requests.get() == before,
+                    "URL-unsafe symbol rejected without a request");
+        }
+
+        server.stop(0);
+        upstream.shutdown();
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static boolean check(boolean condition, String what) {
+        System.out.println((condition ? "  pass  " : "  FAIL  ") + what);
+        return condition;
+    }
+
+    /**
+     * {@code count} saatlik mum; son mum şu anki saat (açık), öncekiler kapanmış.
+     * Format: [openTime, "open", "high", "low", "close", "volume", closeTime, ...] (12 alan).
+     */
+    private static byte[] klines(int count, long now) {
+        long currentOpen = now - now % HOUR;
+        StringBuilder json = new StringBuilder("[");
+        for (int k = 0; k < count; k++) {
+            long open = currentOpen - (long) (count - 1 - k) * HOUR;
+            boolean last = k == count - 1;
+            double close = last ? OPEN_CLOSE : CLOSED_CLOSE;
+            double volume = last ? OPEN_VOLUME : CLOSED_VOLUME;
+            if (k > 0) json.append(',');
+            json.append('[').append(open)
+                    .append(",\"100.0\",\"151.0\",\"99.0\",\"").append(close)
+                    .append("\",\"").append(volume).append("\",").append(open + HOUR - 1)
+                    .append(",\"0\",10,\"0\",\"0\",\"0\"]");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.kriptobot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * src/main/resources/fixtures altındaki upstream cevap örnekleri.
+ * Yapı gerçek API cevaplarıyla aynı (alan adları, tipler, null'lar); değerler sabit seed ile üretildi.
+ */
+final class Fixtures {
+
+    static final String COINGECKO_MARKETS = "coingecko-markets-250.json";
+    static final String BINANCE_KLINES = "binance-klines-btcusdt-1h-100.json";
+    static final String FEAR_GREED = "alternative-me-fng-limit-1.json";
+
+    private Fixtures() {
+    }
+
+    static byte[] bytes(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Fixture'daki coinlerin fiyat ve 24h değişimleriyle dolu bir tablo. */
+    static MarketTable marketTable() {
+        MarketTable table = new MarketTable(250);
+        try {
+            new MarketJsonParser(new com.fasterxml.jackson.core.JsonFactory())
+                    .parseInto(new java.io.ByteArrayInputStream(bytes(COINGECKO_MARKETS)), table);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.kriptobot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy string görünümü için fiyat / yüzde formatlama (coin başına bir op).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+    double[] prices;
+    double[] changes;
+    int i;
+
+    @Setup
+    public void setup() {
+        MarketTable table = Fixtures.marketTable();
+        prices = new double[table.size()];
+        changes = new double[table.size()];
+        for (int k = 0; k < table.size(); k++) {
+            prices[k] = table.price(k);
+            changes[k] = table.change24h(k);
+        }
+    }
+
+    @Benchmark
+    public String fmtMoney() {
+        int k = i++ % prices.length;
+        return CoinService.fmtMoney(BigDecimal.valueOf(prices[k]));
+    }
+
+    @Benchmark
+    public String fmtPct() {
+        int k = i++ % changes.length;
+        return CoinService.fmtPct(BigDecimal.valueOf(changes[k]));
+    }
+
+    @Benchmark
+    public String fastMoney() {
+        int k = i++ % prices.length;
+        return FastDecimal.money(prices[k]);
+    }
+
+    @Benchmark
+    public String fastPct() {
+        int k = i++ % changes.length;
+        return FastDecimal.pct(changes[k]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.kriptobot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch (List&lt;Double&gt; ve double[]) indikatörler ile tick başına streaming güncelleme.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndicatorBenchmark {
+
+    @Param({"100", "1000"})
+    int candles;
+
+    double[] prices;
+    List<Double> boxed;
+    SymbolIndicators live;
+    int tick;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        prices = new double[candles];
+        boxed = new ArrayList<>(candles);
+        double x = 100;
+        for (int i = 0; i < candles; i++) {
+            x *= 1 + r.nextGaussian() * 0.01;
+            prices[i] = x;
+            boxed.add(x);
+        }
+        live = new SymbolIndicators(candles);
+        for (double p : prices) {
+            live.update(p, 1000);
+        }
+    }
+
+    @Benchmark
+    public double rsiBoxedList() {
+        return TechnicalIndicators.calculateRSI(boxed, 14);
+    }
+
+    @Benchmark
+    public double rsiPrimitive() {
+        return TechnicalIndicators.calculateRSI(prices, 14);
+    }
+
+    @Benchmark
+    public double[] macdPrimitive() {
+        return TechnicalIndicators.calculateMACD(prices);
+    }
+
+    /** Yeni bir tick: RSI + MACD + hacim ring'i O(1) günceller. */
+    @Benchmark
+    public double streamingTick() {
+        double p = prices[tick++ % candles];
+        live.update(p, 1000);
+        return live.rsi() + live.macd().histogram();
+    }
+
+    @Benchmark
+    public int analyzeTrend() {
+        int i = tick++ % candles;
+        return TechnicalIndicators.analyzeTrend(prices[i] - 100, prices[i] - 99, prices[i] - 95, prices[i] - 90);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.kriptobot;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Çalışan uygulamaya karşı eşzamanlı istek testi (JMH değil, düz main).
+ * {@code --clients} kadar istemci aynı anda başlar, her biri {@code --requests} istek atar;
+ * istemciler sürerken {@code --probe} URL'i (ör. /api/health) aralıkla ölçülür.
+ * Bloklayan istekler request thread havuzunu doldurursa probe gecikmesi bunu gösterir.
+ * Soğuk başlangıç senaryosunun upstream'i {@link UpstreamStub}; uygulama bayrakları load-results.txt'te.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.kriptobot.LoadTest \
+ *     --url http://127.0.0.1:8080/api/piyasa --clients 1000 --requests 1 \
+ *     --probe http://127.0.0.1:8080/api/health
+ * </pre>
+ */
+public final class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        String probe = null;
+        int clients = 500;
+        int requests = 1;
+        Duration probeInterval = Duration.ofMillis(200);
+        Duration timeout = Duration.ofSeconds(60);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url" -> url = args[i + 1];
+                case "--probe" -> probe = args[i + 1];
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--requests" -> requests = Integer.parseInt(args[i + 1]);
+                case "--probe-interval" -> probeInterval = Duration.parse(args[i + 1]);
+                case "--timeout" -> timeout = Duration.parse(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (url == null) {
+            System.err.println("Usage: LoadTest --url URL [--clients N] [--requests N] [--probe URL] " +
+                    "[--probe-interval PT0.2S] [--timeout PT60S]");
+            System.exit(2);
+        }
+
+        // HTTP/1.1: her eşzamanlı istek ayrı bağlantı, tarayıcılardaki gibi
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest main = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).build();
+
+        int total = clients * requests;
+        AtomicLongArray latency = new AtomicLongArray(total);
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        List<Long> probeLatency = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int perClient = requests;
+                pool.execute(() -> {
+                    for (int r = 0; r < perClient; r++) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = http.send(main, HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() != 200) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latency.set(recorded.getAndIncrement(), System.nanoTime() - t0);
+                    }
+                });
+            }
+
+            if (probe != null) {
+                HttpRequest probeReq = HttpRequest.newBuilder(URI.create(probe)).timeout(timeout).build();
+                while (recorded.get() < total) {
+                    long t0 = System.nanoTime();
+                    try {
+                        http.send(probeReq, HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception ignored) {
+                        // zaman aşımı da gecikme olarak kaydedilir
+                    }
+                    probeLatency.add(System.nanoTime() - t0);
+                    Thread.sleep(probeInterval.toMillis());
+                }
+            }
+        }
+        long wall = System.nanoTime() - start;
+
+        long[] sorted = new long[total];
+        for (int i = 0; i < total; i++) sorted[i] = latency.get(i);
+        Arrays.sort(sorted);
+
+        System.out.printf(Locale.ROOT, "%s: %d clients x %d requests, %d errors, wall %.2fs, %.1f req/s%n",
+                url, clients, requests, errors.get(), wall / 1e9, total / (wall / 1e9));
+        print("requests", sorted);
+        if (!probeLatency.isEmpty()) {
+            print("probe   ", probeLatency.stream().mapToLong(Long::longValue).sorted().toArray());
+        }
+        System.exit(0);
+    }
+
+    private static void print(String label, long[] sorted) {
+        System.out.printf(Locale.ROOT, "  %s n=%-5d p50 %8.1f ms  p90 %8.1f ms  p99 %8.1f ms  max %8.1f ms%n",
+                label, sorted.length, pct(sorted, 0.50), pct(sorted, 0.90), pct(sorted, 0.99),
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
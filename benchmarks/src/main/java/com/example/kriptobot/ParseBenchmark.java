@@ -0,0 +1,81 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream cevaplarının parse maliyeti (fixture başına bir parse = bir op).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    byte[] markets;
+    byte[] klines;
+    String fearGreed;
+
+    final ObjectMapper om = new ObjectMapper();
+    final MarketJsonParser marketParser = new MarketJsonParser(new JsonFactory());
+    final BinanceCandleSource binance = new BinanceCandleSource(null, "http://localhost");
+
+    @Setup
+    public void setup() {
+        markets = Fixtures.bytes(Fixtures.COINGECKO_MARKETS);
+        klines = Fixtures.bytes(Fixtures.BINANCE_KLINES);
+        fearGreed = new String(Fixtures.bytes(Fixtures.FEAR_GREED), StandardCharsets.UTF_8);
+    }
+
+    /** Şu anki yol: streaming parser, primitive kolonlar. */
+    @Benchmark
+    public MarketTable coinGeckoStreaming() throws IOException {
+        MarketTable table = new MarketTable(250);
+        marketParser.parseInto(new ByteArrayInputStream(markets), table);
+        return table;
+    }
+
+    /** Karşılaştırma için eski yol: JsonNode ağacı + alan başına BigDecimal. */
+    @Benchmark
+    public double coinGeckoTree() throws IOException {
+        double sum = 0;
+        for (JsonNode coin : om.readTree(markets)) {
+            sum += coin.path("symbol").asText().length();
+            sum += BigDecimal.valueOf(coin.path("current_price").asDouble()).doubleValue();
+            sum += BigDecimal.valueOf(coin.path("price_change_percentage_1h_in_currency").asDouble()).doubleValue();
+            sum += BigDecimal.valueOf(coin.path("price_change_percentage_24h").asDouble()).doubleValue();
+            sum += BigDecimal.valueOf(coin.path("price_change_percentage_7d_in_currency").asDouble()).doubleValue();
+            sum += BigDecimal.valueOf(coin.path("price_change_percentage_30d_in_currency").asDouble()).doubleValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public CandleSeries binanceKlines() throws IOException {
+        return binance.parse(new ByteArrayInputStream(klines), 100, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public FearGreedService.FearGreedData fearGreed() throws IOException {
+        return FearGreedService.parse(om, fearGreed);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/piyasa cevabının maliyeti: DTO listesini JSON'a çevirmek ve refresh başına snapshot hazırlamak.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    final ObjectMapper om = new ObjectMapper();
+    MarketTable table;
+    List<CoinDto> coins;
+
+    @Setup
+    public void setup() {
+        table = Fixtures.marketTable();
+        coins = new ArrayList<>(table.size());
+        for (int k = 0; k < table.size(); k++) {
+            long signal = TechnicalIndicators.packSignal(50 + table.change24h(k), table.change24h(k) > 0 ? 0.5 : -0.5, 0, 1.0);
+            SignalCode code = TechnicalIndicators.packedSignal(signal);
+            coins.add(new CoinDto(
+                    table.symbol(k) + " / USDT",
+                    "LIVE",
+                    CoinService.fmtMoney(BigDecimal.valueOf(table.price(k))),
+                    CoinService.fmtPct(BigDecimal.valueOf(table.change24h(k))),
+                    String.valueOf(TechnicalIndicators.packedConfidence(signal)),
+                    code.label,
+                    code.color));
+        }
+    }
+
+    /** Eski davranış: her istekte listeyi kopyalayıp yeniden serialize etmek. */
+    @Benchmark
+    public byte[] coinDtoJsonPerRequest() throws JsonProcessingException {
+        return om.writeValueAsBytes(new ArrayList<>(coins));
+    }
+
+    /** Refresh başına bir kez: JSON + gzip + ETag. */
+    @Benchmark
+    public MarketSnapshot snapshotPerRefresh() throws JsonProcessingException {
+        return MarketSnapshot.of(table, coins, Instant.EPOCH, om);
+    }
+}
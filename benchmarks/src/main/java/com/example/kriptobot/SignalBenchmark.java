@@ -0,0 +1,61 @@
+package com.example.kriptobot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * generateSignal (metinli, allocation'lı) ile packSignal (hot path) karşılaştırması.
+ * packSignal için -prof gc altında gc.alloc.rate.norm 0 B/op beklenir.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignalBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    double[] rsi = new double[INPUTS];
+    double[] histogram = new double[INPUTS];
+    int[] trend = new int[INPUTS];
+    double[] volume = new double[INPUTS];
+    double[][] macd = new double[INPUTS][];
+    int i;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(7);
+        for (int k = 0; k < INPUTS; k++) {
+            rsi[k] = r.nextDouble() * 100;
+            histogram[k] = r.nextGaussian();
+            trend[k] = r.nextInt(201) - 100;
+            volume[k] = r.nextDouble() * 3;
+            macd[k] = new double[]{0, 0, histogram[k]};
+        }
+    }
+
+    @Benchmark
+    public TechnicalIndicators.SignalResult generateSignal() {
+        int k = i++ & (INPUTS - 1);
+        return TechnicalIndicators.generateSignal(rsi[k], macd[k], trend[k], volume[k], 0);
+    }
+
+    @Benchmark
+    public long packSignal() {
+        int k = i++ & (INPUTS - 1);
+        return TechnicalIndicators.packSignal(rsi[k], histogram[k], trend[k], volume[k]);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.kriptobot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link LoadTest} için yerel upstream (düz main): CoinGecko, Binance ve alternative.me tek portta.
+ * - /coins/markets sayfaları {@code --markets-delay} kadar bekletilir (yavaş CoinGecko)
+ * - /api/v3/ticker/24hr, /exchange_rates ve /fng/ hemen döner; soğuk başlangıçta Binance fallback'i
+ *   CoinGecko beklenirken yayınlanır
+ * - Coinler sabit seed ile üretilir; her çalıştırmada aynı piyasa
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.kriptobot.UpstreamStub --port 9911 --coins 2000 --markets-delay PT20S
+ * </pre>
+ */
+public final class UpstreamStub {
+
+    private static final String FX = "{\"rates\":{"
+            + "\"btc\":{\"name\":\"Bitcoin\",\"unit\":\"BTC\",\"value\":1,\"type\":\"crypto\"},"
+            + "\"usd\":{\"name\":\"US Dollar\",\"unit\":\"$\",\"value\":67000.0,\"type\":\"fiat\"},"
+            + "\"try\":{\"name\":\"Turkish Lira\",\"unit\":\"TL\",\"value\":2157400.0,\"type\":\"fiat\"},"
+            + "\"eur\":{\"name\":\"Euro\",\"unit\":\"EUR\",\"value\":61640.0,\"type\":\"fiat\"}}}";
+
+    public static void main(String[] args) throws Exception {
+        int port = 9911;
+        int coins = 2000;
+        Duration marketsDelay = Duration.ofSeconds(20);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--coins" -> coins = Integer.parseInt(args[i + 1]);
+                case "--markets-delay" -> marketsDelay = Duration.parse(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Market market = new Market(coins);
+        long delay = marketsDelay.toMillis();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            try {
+                if (path.endsWith("/coins/markets")) {
+                    Thread.sleep(delay);
+                    respond(exchange, market.page(param(query, "page", 1), param(query, "per_page", 250)));
+                } else if (path.endsWith("/api/v3/ticker/24hr")) {
+                    respond(exchange, market.tickers());
+                } else if (path.endsWith("/exchange_rates")) {
+                    respond(exchange, FX.getBytes(StandardCharsets.UTF_8));
+                } else if (path.startsWith("/fng/")) {
+                    int limit = param(query, "limit", 1);
+                    respond(exchange, fearGreed(limit == 0 ? 400 : limit));
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        System.out.printf(Locale.ROOT, "UpstreamStub on http://127.0.0.1:%d (%d coins, /coins/markets delay %s)%n",
+                port, coins, marketsDelay);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static int param(String query, String name, int fallback) {
+        if (query == null) return fallback;
+        for (String param : query.split("&")) {
+            if (param.startsWith(name + "=")) return Integer.parseInt(param.substring(name.length() + 1));
+        }
+        return fallback;
+    }
+
+    private static byte[] fearGreed(int days) {
+        long today = System.currentTimeMillis() / 1000 / 86_400 * 86_400;
+        StringBuilder json = new StringBuilder("{\"name\":\"Fear and Greed Index\",\"data\":[");
+        for (int k = 0; k < days; k++) {
+            if (k > 0) json.append(',');
+            json.append("{\"value\":\"").append(k == 0 ? 42 : (k * 37) % 101)
+                    .append("\",\"value_classification\":\"Fear\",\"timestamp\":\"").append(today - k * 86_400L)
+                    .append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Market cap sırasıyla coinler; fiyatlar 1e-6 ile 1e5 arasında log-uniform. */
+    private static final class Market {
+        final String[] symbol;
+        final double[] price;
+        final double[] change;
+        final double[] volume;
+        final byte[] tickers;
+
+        Market(int n) {
+            Random r = new Random(1);
+            symbol = new String[n];
+            price = new double[n];
+            change = new double[n];
+            volume = new double[n];
+            for (int i = 0; i < n; i++) {
+                symbol[i] = i == 0 ? "btc" : i == 1 ? "eth" : "c" + i;
+                price[i] = Math.pow(10, -6 + r.nextDouble() * 11);
+                change[i] = -12 + r.nextDouble() * 24;
+                volume[i] = 1e10 / (i + 1) * (0.5 + r.nextDouble() * 1.5);
+            }
+            tickers = buildTickers();
+        }
+
+        byte[] page(int page, int perPage) {
+            int from = Math.max(0, (page - 1) * perPage);
+            int to = Math.min(symbol.length, from + perPage);
+            StringBuilder json = new StringBuilder(Math.max(2, to - from) * 320).append('[');
+            for (int i = from; i < to; i++) {
+                if (i > from) json.append(',');
+                json.append(String.format(Locale.ROOT,
+                        "{\"id\":\"coin-%d\",\"symbol\":\"%s\",\"name\":\"Coin %d\",\"current_price\":%.8f,"
+                                + "\"market_cap\":%d,\"market_cap_rank\":%d,\"total_volume\":%.0f,"
+                                + "\"price_change_percentage_24h\":%.5f,\"price_change_percentage_1h_in_currency\":%.5f,"
+                                + "\"price_change_percentage_7d_in_currency\":%.5f,"
+                                + "\"price_change_percentage_30d_in_currency\":%.5f,"
+                                + "\"roi\":null,\"last_updated\":\"2024-01-01T00:00:00.000Z\"}",
+                        i, symbol[i], i, price[i], (long) (1e12 / (i + 1)), i + 1, volume[i],
+                        change[i], change[i] / 8, change[i] * 2, change[i] * 3));
+            }
+            return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] tickers() {
+            return tickers;
+        }
+
+        private byte[] buildTickers() {
+            StringBuilder json = new StringBuilder(symbol.length * 200).append('[');
+            for (int i = 0; i < symbol.length; i++) {
+                if (i > 0) json.append(',');
+                json.append(String.format(Locale.ROOT,
+                        "{\"symbol\":\"%sUSDT\",\"priceChangePercent\":\"%.3f\",\"lastPrice\":\"%.8f\","
+                                + "\"volume\":\"100\",\"quoteVolume\":\"%.2f\",\"openTime\":1,\"closeTime\":%d,\"count\":3}",
+                        symbol[i].toUpperCase(Locale.ROOT), change[i], price[i], volume[i], System.currentTimeMillis()));
+            }
+            return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
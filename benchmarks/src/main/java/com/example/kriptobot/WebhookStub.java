@@ -0,0 +1,52 @@
+package com.example.kriptobot;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Alarm webhook'larını denemek için yerel alıcı (düz main): gelen her POST gövdesini yazar, 204 döner.
+ * {@code --fail-every N} her N. isteğe 503 döner; AlertEngine'in tekrar denemesi böyle görülür.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.kriptobot.WebhookStub --port 9000
+ * # uygulama: --kriptobot.alerts.webhook-url=http://127.0.0.1:9000/alerts
+ * </pre>
+ */
+public final class WebhookStub {
+
+    public static void main(String[] args) throws Exception {
+        int port = 9000;
+        int failEvery = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--fail-every" -> failEvery = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        AtomicInteger received = new AtomicInteger();
+        int fail = failEvery;
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            int n = received.incrementAndGet();
+            boolean failed = fail > 0 && n % fail == 0;
+            System.out.println("#" + n + " " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + (failed ? " -> 503 " : " ") + body);
+            exchange.sendResponseHeaders(failed ? 503 : 204, -1);
+            exchange.close();
+        });
+        server.start();
+        System.out.println("Webhook stub listening on 127.0.0.1:" + port);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * İstemci tarafı decode maliyeti: /api/piyasa JSON (List&lt;CoinDto&gt;) ile binary format.
+ * Boyutlar (v1 JSON, v2 JSON, binary; ham ve gzip) setup'ta bir kere yazdırılır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<CoinDto>> COINS = new TypeReference<>() {
+    };
+
+    final ObjectMapper om = new ObjectMapper();
+    byte[] json;
+    byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        MarketTable table = Fixtures.marketTable();
+        for (int k = 0; k < table.size(); k++) {
+            table.rsi[k] = Math.max(10, Math.min(90, 50 + table.change24h[k]));
+            table.macdHistogram[k] = table.change24h[k] > 0 ? 0.5 : -0.5;
+            table.volumeMultiplier[k] = 1.0;
+        }
+        BatchSignalScorer.score(table);
+
+        List<CoinDto> coins = new ArrayList<>(table.size());
+        for (int k = 0; k < table.size(); k++) {
+            SignalCode code = TechnicalIndicators.packedSignal(table.signal[k]);
+            coins.add(new CoinDto(table.symbol(k) + " / USDT", "LIVE",
+                    FastDecimal.money(table.price(k)), FastDecimal.pct(table.change24h(k)),
+                    String.valueOf(TechnicalIndicators.packedConfidence(table.signal[k])), code.label, code.color));
+        }
+        MarketSnapshot snapshot = MarketSnapshot.of(table, coins, Instant.EPOCH, om);
+        json = snapshot.body().json();
+        binary = snapshot.bodyBinary().json();
+        System.out.printf("%n%d coins: json %d B (gzip %d), v2 %d B (gzip %d), binary %d B (gzip %d)%n", table.size(),
+                json.length, snapshot.body().gzip().length,
+                snapshot.bodyV2().json().length, snapshot.bodyV2().gzip().length,
+                binary.length, snapshot.bodyBinary().gzip().length);
+    }
+
+    @Benchmark
+    public List<CoinDto> decodeJson() throws IOException {
+        return om.readValue(json, COINS);
+    }
+
+    @Benchmark
+    public MarketBinaryCodec.Decoded decodeBinary() {
+        return MarketBinaryCodec.decode(binary);
+    }
+}
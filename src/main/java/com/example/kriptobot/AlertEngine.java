@@ -0,0 +1,350 @@
+package com.example.kriptobot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fiyat, sinyal ve Fear &amp; Greed alarmları; her refresh'te değerlendirilir.
+ * - Fiyat/F&amp;G alarmları sembol başına eşiğe göre sıralı {@link ThresholdIndex}'te durur.
+ *   Refresh'te sadece önceki ve yeni değer arasında kalan eşikler (ikili arama) okunur;
+ *   alarm sayısı değil, alarmı olan sembol sayısı ve tetiklenen alarm sayısı kadar iş yapılır
+ * - Tetikleme kenar bazlı: "üstüne çıkınca" alarmı fiyat eşiği aşağıdan yukarı geçtiğinde çalışır,
+ *   kayıt anında zaten üstündeyse bir sonraki geçişi bekler
+ * - Alarmlar tek seferlik; tetiklenen alarm silinir
+ * - Bildirimler tüm {@link AlertSink} bean'lerine virtual thread'lerde gönderilir; refresh beklemez
+ * - Id'ler SecureRandom'dan (53 bit, JS number'a sığar): sıralı olmadığı için başkasının alarmı
+ *   tahmin edilip okunamaz/silinemez; id alarmın sahipliğini gösteren tek anahtar
+ * - İstemci (uzak adres) başına alarm sınırı: tek istemci global sınırı doldurup diğerlerini engelleyemez
+ *
+ * Alarmlar sadece bellekte tutulur, yeniden başlatmada kaybolur.
+ */
+@Service
+public class AlertEngine {
+
+    public enum Type {
+        PRICE_ABOVE, PRICE_BELOW, SIGNAL, FEAR_GREED_ABOVE, FEAR_GREED_BELOW
+    }
+
+    /**
+     * @param symbol    fiyat/sinyal alarmlarında sembol, F&amp;G alarmlarında null
+     * @param threshold fiyat (USD) veya F&amp;G eşiği; sinyal alarmlarında null
+     * @param signal    sinyal alarmlarında beklenen seviye
+     */
+    public record Alert(long id, Type type, String symbol, Double threshold, SignalCode signal, long createdAt) {
+    }
+
+    /**
+     * @param from önceki değer (fiyat, F&amp;G değeri veya sinyal etiketi)
+     * @param to   tetikleyen yeni değer
+     */
+    public record Notification(Alert alert, Object from, Object to, long firedAt) {
+    }
+
+    /** İstemcinin bekleyen alarm sayısı sınırda. */
+    public static class ClientLimitException extends RuntimeException {
+        public ClientLimitException(int max) {
+            super("Alert limit per client reached (" + max + ")");
+        }
+    }
+
+    private static final long ID_MASK = (1L << 53) - 1;
+
+    private final CoinService coinService;
+    private final List<AlertSink> sinks;
+    private final int maxAlerts;
+    private final int maxPerClient;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final ExecutorService delivery = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("alert-delivery-", 0).factory());
+    private final SecureRandom ids = new SecureRandom();
+
+    // Hepsi this kilidi altında
+    private final Map<Long, Alert> alerts = new HashMap<>();
+    private final Map<Long, String> owners = new HashMap<>();
+    private final Map<String, Integer> perClient = new HashMap<>();
+    private final Map<String, ThresholdIndex> above = new HashMap<>();
+    private final Map<String, ThresholdIndex> below = new HashMap<>();
+    private final Map<String, EnumMap<SignalCode, Set<Long>>> signals = new HashMap<>();
+    private final ThresholdIndex fearGreedAbove = new ThresholdIndex();
+    private final ThresholdIndex fearGreedBelow = new ThresholdIndex();
+    private int lastFearGreed = -1;
+
+    private final Map<Type, Counter> fired = new EnumMap<>(Type.class);
+    private final Counter delivered;
+    private final Counter failed;
+    private final Timer evaluation;
+
+    public AlertEngine(
+            CoinService coinService,
+            List<AlertSink> sinks,
+            MeterRegistry metrics,
+            @Value("${kriptobot.alerts.max:100000}") int maxAlerts,
+            @Value("${kriptobot.alerts.max-per-client:100}") int maxPerClient,
+            @Value("${kriptobot.alerts.delivery-attempts:3}") int maxAttempts,
+            @Value("${kriptobot.alerts.retry-delay:PT2S}") Duration retryDelay) {
+        this.coinService = coinService;
+        this.sinks = List.copyOf(sinks);
+        this.maxAlerts = maxAlerts;
+        this.maxPerClient = Math.max(1, maxPerClient);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelay = retryDelay;
+
+        for (Type t : Type.values()) {
+            fired.put(t, Counter.builder("kriptobot.alerts.fired").tag("type", t.name()).register(metrics));
+        }
+        this.delivered = Counter.builder("kriptobot.alerts.deliveries").tag("result", "ok").register(metrics);
+        this.failed = Counter.builder("kriptobot.alerts.deliveries").tag("result", "failed").register(metrics);
+        this.evaluation = Timer.builder("kriptobot.alerts.evaluate").register(metrics);
+        Gauge.builder("kriptobot.alerts.active", this, AlertEngine::size).register(metrics);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        delivery.shutdown();
+    }
+
+    /**
+     * @param signal sinyal alarmları için "STRONG BUY" veya "STRONG_BUY"
+     * @param client istemci anahtarı (uzak adres); istemci başına sınır bunun üzerinden sayılır
+     * @throws IllegalArgumentException eksik/geçersiz parametre veya bilinmeyen sembol
+     * @throws ClientLimitException     istemcinin alarm sınırı dolu
+     * @throws IllegalStateException    global alarm sınırı dolu
+     */
+    public Alert register(Type type, String symbol, Double threshold, String signal, String client) {
+        if (type == null) throw new IllegalArgumentException("type is required");
+        boolean fearGreed = type == Type.FEAR_GREED_ABOVE || type == Type.FEAR_GREED_BELOW;
+        String sym = null;
+        SignalCode code = null;
+
+        if (fearGreed) {
+            if (threshold == null || !(threshold >= 0 && threshold <= 100)) {
+                throw new IllegalArgumentException("threshold must be 0-100 for " + type);
+            }
+        } else {
+            if (symbol == null || symbol.isBlank()) throw new IllegalArgumentException("symbol is required for " + type);
+            sym = symbol.trim().toUpperCase(Locale.ROOT);
+            MarketSnapshot snapshot = coinService.peekSnapshot();
+            if (!snapshot.isEmpty() && snapshot.row(sym) < 0) {
+                throw new IllegalArgumentException("Unknown symbol: " + symbol);
+            }
+            if (type == Type.SIGNAL) {
+                code = parseSignal(signal);
+                threshold = null;
+            } else if (threshold == null || !(threshold > 0) || threshold.isInfinite()) {
+                throw new IllegalArgumentException("threshold must be a positive price for " + type);
+            }
+        }
+
+        synchronized (this) {
+            if (perClient.getOrDefault(client, 0) >= maxPerClient) throw new ClientLimitException(maxPerClient);
+            if (alerts.size() >= maxAlerts) throw new IllegalStateException("Alert limit reached (" + maxAlerts + ")");
+            long id;
+            do {
+                id = ids.nextLong() & ID_MASK;
+            } while (id == 0 || alerts.containsKey(id));
+            Alert alert = new Alert(id, type, sym, threshold, code, System.currentTimeMillis());
+            alerts.put(id, alert);
+            owners.put(id, client);
+            perClient.merge(client, 1, Integer::sum);
+            switch (type) {
+                case PRICE_ABOVE -> above.computeIfAbsent(sym, k -> new ThresholdIndex()).add(threshold, alert.id());
+                case PRICE_BELOW -> below.computeIfAbsent(sym, k -> new ThresholdIndex()).add(threshold, alert.id());
+                case FEAR_GREED_ABOVE -> fearGreedAbove.add(threshold, alert.id());
+                case FEAR_GREED_BELOW -> fearGreedBelow.add(threshold, alert.id());
+                case SIGNAL -> signals.computeIfAbsent(sym, k -> new EnumMap<>(SignalCode.class))
+                        .computeIfAbsent(code, k -> new LinkedHashSet<>()).add(alert.id());
+            }
+            return alert;
+        }
+    }
+
+    public synchronized Alert get(long id) {
+        return alerts.get(id);
+    }
+
+    /**
+     * @return alarm bulunduysa (ve henüz tetiklenmediyse) true
+     */
+    public synchronized boolean cancel(long id) {
+        Alert a = forget(id);
+        if (a == null) return false;
+        switch (a.type()) {
+            case PRICE_ABOVE -> removeFrom(above, a);
+            case PRICE_BELOW -> removeFrom(below, a);
+            case FEAR_GREED_ABOVE -> fearGreedAbove.remove(a.threshold(), id);
+            case FEAR_GREED_BELOW -> fearGreedBelow.remove(a.threshold(), id);
+            case SIGNAL -> {
+                EnumMap<SignalCode, Set<Long>> bySignal = signals.get(a.symbol());
+                Set<Long> ids = bySignal.get(a.signal());
+                ids.remove(id);
+                if (ids.isEmpty()) bySignal.remove(a.signal());
+                if (bySignal.isEmpty()) signals.remove(a.symbol());
+            }
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return alerts.size();
+    }
+
+    @EventListener
+    void onMarketRefreshed(MarketRefreshedEvent event) {
+        MarketSnapshot previous = event.previous();
+        MarketSnapshot current = event.current();
+        // İlk snapshot'ta karşılaştırılacak önceki değer yok
+        if (previous.isEmpty() || current.isEmpty()) return;
+
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        List<Notification> out = new ArrayList<>();
+        synchronized (this) {
+            crossings(above, true, previous, current, now, out);
+            crossings(below, false, previous, current, now, out);
+            signalChanges(previous, current, now, out);
+        }
+        evaluation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        dispatch(out);
+    }
+
+    @EventListener
+    void onFearGreedRefreshed(FearGreedRefreshedEvent event) {
+        int value = event.data().value;
+        long now = System.currentTimeMillis();
+        List<Notification> out = new ArrayList<>();
+        synchronized (this) {
+            int from = lastFearGreed;
+            lastFearGreed = value;
+            if (from < 0) return;
+            take(fearGreedAbove.takeCrossedUp(from, value), from, value, now, out);
+            take(fearGreedBelow.takeCrossedDown(from, value), from, value, now, out);
+        }
+        dispatch(out);
+    }
+
+    // Sadece alarmı olan semboller; her biri için iki ikili arama
+    private void crossings(Map<String, ThresholdIndex> book, boolean up, MarketSnapshot previous,
+                           MarketSnapshot current, long now, List<Notification> out) {
+        Iterator<Map.Entry<String, ThresholdIndex>> it = book.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, ThresholdIndex> e = it.next();
+            int a = previous.row(e.getKey());
+            int b = current.row(e.getKey());
+            if (a < 0 || b < 0) continue;
+            double from = previous.table().price[a];
+            double to = current.table().price[b];
+            ThresholdIndex index = e.getValue();
+            take(up ? index.takeCrossedUp(from, to) : index.takeCrossedDown(from, to), from, to, now, out);
+            if (index.size() == 0) it.remove();
+        }
+    }
+
+    private void signalChanges(MarketSnapshot previous, MarketSnapshot current, long now, List<Notification> out) {
+        Iterator<Map.Entry<String, EnumMap<SignalCode, Set<Long>>>> it = signals.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, EnumMap<SignalCode, Set<Long>>> e = it.next();
+            int a = previous.row(e.getKey());
+            int b = current.row(e.getKey());
+            if (a < 0 || b < 0) continue;
+            SignalCode from = TechnicalIndicators.packedSignal(previous.table().signal[a]);
+            SignalCode to = TechnicalIndicators.packedSignal(current.table().signal[b]);
+            if (from == to) continue;
+            Set<Long> ids = e.getValue().remove(to);
+            if (ids == null) continue;
+            for (long id : ids) {
+                Alert alert = forget(id);
+                if (alert != null) out.add(new Notification(alert, from.label, to.label, now));
+            }
+            if (e.getValue().isEmpty()) it.remove();
+        }
+    }
+
+    private void take(long[] ids, Object from, Object to, long now, List<Notification> out) {
+        for (long id : ids) {
+            Alert alert = forget(id);
+            if (alert != null) out.add(new Notification(alert, from, to, now));
+        }
+    }
+
+    // Alarmı ve sahibinin sayacını düşer; indekslerden çıkarmak çağıranın işi
+    private Alert forget(long id) {
+        Alert alert = alerts.remove(id);
+        if (alert != null) {
+            perClient.computeIfPresent(owners.remove(id), (k, n) -> n > 1 ? n - 1 : null);
+        }
+        return alert;
+    }
+
+    private void removeFrom(Map<String, ThresholdIndex> book, Alert a) {
+        ThresholdIndex index = book.get(a.symbol());
+        index.remove(a.threshold(), a.id());
+        if (index.size() == 0) book.remove(a.symbol());
+    }
+
+    private void dispatch(List<Notification> notifications) {
+        for (Notification n : notifications) {
+            fired.get(n.alert().type()).increment();
+            for (AlertSink sink : sinks) {
+                delivery.execute(() -> deliver(sink, n));
+            }
+        }
+    }
+
+    private void deliver(AlertSink sink, Notification n) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.deliver(n);
+                delivered.increment();
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failed.increment();
+                    System.err.println("Alert #" + n.alert().id() + " delivery FAILED via "
+                            + sink.getClass().getSimpleName() + ": " + e.getMessage());
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(retryDelay.toMillis() * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static SignalCode parseSignal(String signal) {
+        if (signal == null || signal.isBlank()) throw new IllegalArgumentException("signal is required for SIGNAL");
+        String name = signal.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+        try {
+            return SignalCode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown signal: " + signal);
+        }
+    }
+}
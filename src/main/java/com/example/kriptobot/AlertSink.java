@@ -0,0 +1,12 @@
+package com.example.kriptobot;
+
+/**
+ * Tetiklenen alarmların teslim edileceği yer. Her {@code AlertSink} bean'i her bildirimi alır;
+ * yeni bir kanal (e-posta, Telegram...) eklemek için bu arayüzü uygulayan bir bean yeterli.
+ *
+ * AlertEngine çağrıyı virtual thread'de yapar; bloklamak serbest. Hata fırlatılırsa teslim tekrar denenir.
+ */
+public interface AlertSink {
+
+    void deliver(AlertEngine.Notification notification) throws Exception;
+}
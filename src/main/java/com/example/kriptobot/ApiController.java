@@ -1,20 +1,64 @@
 package com.example.kriptobot;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 public class ApiController {
 
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
     private final CoinService coinService;
     private final FearGreedService fearGreedService;
+    private final MarketStreamService streamService;
+    private final TimeSeriesStore history;
+    private final UpstreamClient upstream;
+    private final CoinDetailService coinDetails;
+    private final CurrencyViews currencyViews;
+    private final FxRates fx;
+    private final AlertEngine alerts;
+    private final MarketSummaryService marketSummary;
 
-    public ApiController(CoinService coinService, FearGreedService fearGreedService) {
+    public ApiController(CoinService coinService, FearGreedService fearGreedService,
+                         MarketStreamService streamService, TimeSeriesStore history, UpstreamClient upstream,
+                         CoinDetailService coinDetails, CurrencyViews currencyViews, FxRates fx,
+                         AlertEngine alerts, MarketSummaryService marketSummary) {
         this.coinService = coinService;
         this.fearGreedService = fearGreedService;
+        this.streamService = streamService;
+        this.history = history;
+        this.upstream = upstream;
+        this.coinDetails = coinDetails;
+        this.currencyViews = currencyViews;
+        this.fx = fx;
+        this.alerts = alerts;
+        this.marketSummary = marketSummary;
     }
 
     @GetMapping("/health")
@@ -22,13 +66,305 @@ public class ApiController {
         return ResponseEntity.ok("OK");
     }
 
+    /** Provider başına devre durumu ve anlık (adaptif) istek hızı. */
+    @GetMapping("/health/upstream")
+    public Map<String, Object> upstreamHealth() {
+        return upstream.status();
+    }
+
+    private static final MediaType MARKET_BINARY = MediaType.parseMediaType(MarketBinaryCodec.MEDIA_TYPE);
+
+    /**
+     * Parametresiz: tüm liste (hazır JSON/gzip/ETag); Accept: {@value MarketBinaryCodec#MEDIA_TYPE} ile binary.
+     * Parametreli: snapshot indeksinden filtre/sıralama/sayfa,
+     * örn. ?sort=change&amp;order=desc&amp;signal=STRONG_BUY&amp;minConfidence=50&amp;q=bt&amp;page=1&amp;limit=50.
+     * Filtreye uyan toplam satır X-Total-Count header'ında.
+     * ?currency=try|eur: fiyatlar o para biriminde (tek USD fetch'inden türetilir); filtre ve binary ile birlikte çalışır.
+     */
     @GetMapping("/piyasa")
-    public ResponseEntity<?> getPiyasa() {
-        return ResponseEntity.ok(coinService.getPiyasa());
+    public ResponseEntity<byte[]> getPiyasa(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "order", required = false) String order,
+            @RequestParam(value = "signal", required = false) List<String> signal,
+            @RequestParam(value = "minConfidence", required = false) Integer minConfidence,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "currency", required = false) String currency,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MarketSnapshot snapshot = snapshotIn(currency);
+        boolean filtered = sort != null || order != null || signal != null || minConfidence != null
+                || q != null || page != null || limit != null;
+        // JSON varsayılan; binary sadece açıkça istenirse (tüm liste için)
+        if (accept != null && accept.contains(MarketBinaryCodec.MEDIA_TYPE)) {
+            if (filtered) {
+                throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Binary format is only available for the full list");
+            }
+            return prepared(snapshot.bodyBinary(), MARKET_BINARY, ifNoneMatch, acceptEncoding);
+        }
+        if (!filtered) {
+            return prepared(snapshot.body(), MediaType.APPLICATION_JSON, ifNoneMatch, acceptEncoding);
+        }
+
+        MarketIndex.Sort sortKey = parseSort(sort);
+        boolean descending = order == null ? sortKey != MarketIndex.Sort.SYMBOL : parseDescending(order);
+        EnumSet<SignalCode> signals = null;
+        if (signal != null) {
+            signals = EnumSet.noneOf(SignalCode.class);
+            for (String label : signal) {
+                SignalCode code = SignalCode.fromLabel(label.trim().replace('-', '_'));
+                if (code == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown signal: " + label);
+                }
+                signals.add(code);
+            }
+        }
+        int pageNo = page == null ? 1 : page;
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageNo < 1 || pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 1, limit 1-" + MAX_LIMIT);
+        }
+        int minConf = minConfidence == null ? 0 : minConfidence;
+        String prefix = q == null ? null : q.trim().toUpperCase(Locale.ROOT);
+
+        // Aynı snapshot + aynı sorgu = aynı byte'lar; ETag ikisinden türetilir
+        String query = sortKey + "|" + descending + "|" + signals + "|" + minConf + "|" + prefix + "|" + pageNo + "|" + pageSize;
+        String snapshotTag = snapshot.body().etag();
+        String etag = snapshotTag.substring(0, snapshotTag.length() - 1) + "-" + Integer.toHexString(query.hashCode()) + "\"";
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        MarketIndex.Page result = snapshot.index().query(sortKey, descending, signals, minConf, prefix,
+                (int) Math.min(Integer.MAX_VALUE, (long) (pageNo - 1) * pageSize), pageSize);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Total-Count", String.valueOf(result.total()))
+                .body(result.json());
+    }
+
+    /**
+     * Tipli v2 liste: ham sayılar, sinyal kodu + "signals" legend'ı, snapshot seviyesinde stale bayrağı.
+     */
+    @GetMapping("/v2/piyasa")
+    public ResponseEntity<byte[]> getPiyasaV2(
+            @RequestParam(value = "currency", required = false) String currency,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return prepared(snapshotIn(currency).bodyV2(), MediaType.APPLICATION_JSON, ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Piyasa geneli: yükselen/düşen, sinyal dağılımı, cap ağırlıklı 24h değişim, top gainers/losers.
+     * Refresh başına bir kez hesaplanır; ETag/gzip /piyasa ile aynı.
+     */
+    @GetMapping("/market/summary")
+    public ResponseEntity<byte[]> getMarketSummary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return prepared(marketSummary.summary(), MediaType.APPLICATION_JSON, ifNoneMatch, acceptEncoding);
+    }
+
+    /** Desteklenen para birimleri ve 1 USD karşılıkları (?currency= için). */
+    @GetMapping("/currencies")
+    public Map<String, Double> getCurrencies() {
+        return currencyViews.rates();
+    }
+
+    /**
+     * Tek coin detayı: fiyat/değişimler, tüm indikatörler, analiz metni ve Binance ticker sinyali.
+     * Sembol başına TTL'li LRU cache'ten gelir.
+     */
+    @GetMapping("/coin/{symbol}")
+    public ResponseEntity<?> getCoin(@PathVariable String symbol) {
+        CoinDetail result = coinDetails.detail(symbol);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/fear-greed")
     public ResponseEntity<?> getFearGreed() {
         return ResponseEntity.ok(fearGreedService.getFearGreed());
     }
+
+    /**
+     * Günlük Fear &amp; Greed serisi (son {@code days} gün) ve 7/30/90 günlük ortalama, min/max, yüzdelikler.
+     * İstatistikler yeni gün eklenirken hesaplanmış halde gelir; istek upstream'e gitmez.
+     */
+    @GetMapping("/fear-greed/history")
+    public ResponseEntity<?> getFearGreedHistory(@RequestParam(value = "days", defaultValue = "90") int days) {
+        if (days < 1 || days > 3650) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be 1-3650");
+        }
+        FearGreedHistory h = fearGreedService.history();
+        if (h == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long last = h.lastTimestamp();
+        FearGreedHistory.Series series = last < 0 ? new FearGreedHistory.Series(new long[0], new int[0])
+                : h.since(last - Duration.ofDays(days - 1).toSeconds());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("latest", fearGreedService.peekFearGreed());
+        body.put("stats", h.stats());
+        body.put("t", series.t());
+        body.put("value", series.value());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Fiyat/sinyal geçmişi: /api/history/btc?days=7 (Fear &amp; Greed için /api/history/fear-greed).
+     * Kolon bazlı döner; points parametresi nokta sayısını sınırlar.
+     */
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<?> getHistory(@PathVariable String symbol,
+                                        @RequestParam(value = "days", defaultValue = "7") int days,
+                                        @RequestParam(value = "points", defaultValue = "500") int points) throws IOException {
+        if (days < 1 || days > 365 || points < 1 || points > 5000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be 1-365, points 1-5000");
+        }
+        boolean fng = symbol.equalsIgnoreCase("fear-greed");
+        String series = fng ? TimeSeriesStore.FEAR_GREED : symbol.toUpperCase(Locale.ROOT);
+        long to = System.currentTimeMillis();
+        long from = to - Duration.ofDays(days).toMillis();
+        TimeSeriesStore.Range r = history.query(series, from, to, points);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("symbol", fng ? "fear-greed" : series);
+        body.put("from", from);
+        body.put("to", to);
+        body.put("t", r.time());
+        body.put(fng ? "value" : "price", r.price());
+        if (!fng) {
+            String[] signal = new String[r.size()];
+            for (int i = 0; i < signal.length; i++) {
+                signal[i] = SignalCode.ofOrdinal(r.signal()[i]).label;
+            }
+            body.put("change24h", r.change24h());
+            body.put("signal", signal);
+            body.put("confidence", r.confidence());
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Alarm kaydı (tek seferlik, sonraki refresh'lerde değerlendirilir). Örnekler:
+     * {"type":"PRICE_ABOVE","symbol":"BTC","threshold":70000},
+     * {"type":"SIGNAL","symbol":"ETH","signal":"STRONG BUY"},
+     * {"type":"FEAR_GREED_BELOW","threshold":20}
+     * Dönen id alarmın tek anahtarı (tahmin edilemez); okuma ve silme onunla yapılır.
+     * İstemci başına sınır uzak adrese göre sayılır (proxy arkasında server.forward-headers-strategy gerekir).
+     */
+    @PostMapping("/alerts")
+    public ResponseEntity<AlertEngine.Alert> createAlert(@RequestBody AlertRequest request, HttpServletRequest http) {
+        AlertEngine.Alert alert;
+        try {
+            alert = alerts.register(request.type(), request.symbol(), request.threshold(), request.signal(),
+                    http.getRemoteAddr());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (AlertEngine.ClientLimitException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return ResponseEntity.created(URI.create("/api/alerts/" + alert.id())).body(alert);
+    }
+
+    /** Bekleyen alarm; tetiklenmiş veya silinmişse 404. */
+    @GetMapping("/alerts/{id}")
+    public ResponseEntity<AlertEngine.Alert> getAlert(@PathVariable long id) {
+        AlertEngine.Alert alert = alerts.get(id);
+        return alert != null ? ResponseEntity.ok(alert) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/alerts/{id}")
+    public ResponseEntity<Void> deleteAlert(@PathVariable long id) {
+        return alerts.cancel(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Server-Sent Events: ilk mesaj tam snapshot, sonrakiler sadece değişen coinler.
+     * ?topics=market,fear-greed ile abone olunacak yayınlar seçilebilir (varsayılan hepsi).
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(value = "topics", required = false) List<String> topics) {
+        EnumSet<MarketStreamService.Topic> selected = EnumSet.noneOf(MarketStreamService.Topic.class);
+        if (topics != null) {
+            for (String t : topics) {
+                try {
+                    selected.add(MarketStreamService.Topic.valueOf(t.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+                } catch (IllegalArgumentException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown topic: " + t);
+                }
+            }
+        }
+        return streamService.subscribe(selected);
+    }
+
+    // currency yoksa USD snapshot; varsa bellekte türetilen görünüm
+    private MarketSnapshot snapshotIn(String currency) {
+        if (currency == null) return coinService.getSnapshot();
+        String code = currency.trim().toLowerCase(Locale.ROOT);
+        if (!fx.supports(code)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported currency: " + currency + " (supported: " + String.join(", ", fx.currencies()) + ")");
+        }
+        MarketSnapshot snapshot = currencyViews.snapshot(code);
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No exchange rate for " + code + " yet");
+        }
+        return snapshot;
+    }
+
+    private static MarketIndex.Sort parseSort(String sort) {
+        if (sort == null) return MarketIndex.Sort.MARKET_CAP;
+        String key = sort.trim().replace("-", "").replace("_", "");
+        for (MarketIndex.Sort s : MarketIndex.Sort.values()) {
+            if (s.name().replace("_", "").equalsIgnoreCase(key)) return s;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + sort);
+    }
+
+    private static boolean parseDescending(String order) {
+        if (order.equalsIgnoreCase("desc")) return true;
+        if (order.equalsIgnoreCase("asc")) return false;
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "order must be asc or desc");
+    }
+
+    /**
+     * Önceden serialize edilmiş cevabı yazar: ETag eşleşirse 304, istemci destekliyorsa gzip.
+     */
+    private static ResponseEntity<byte[]> prepared(PreparedJson body, MediaType type,
+                                                   String ifNoneMatch, String acceptEncoding) {
+        if (ifNoneMatch != null && (ifNoneMatch.contains(body.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(body.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok()
+                .contentType(type)
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return res.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return res.body(body.json());
+    }
+
+    public record AlertRequest(AlertEngine.Type type, String symbol, Double threshold, String signal) {
+    }
 }
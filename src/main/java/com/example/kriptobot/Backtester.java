@@ -0,0 +1,291 @@
+package com.example.kriptobot;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * generateSignal stratejisinin geçmiş mumlar üzerinde backtest'i.
+ *
+ * - Her sembol için indikatör kolonları (RSI, MACD histogram %, trend, hacim çarpanı) canlı sistemle
+ *   aynı kodla ({@link SymbolIndicators}, {@link TechnicalIndicators#analyzeTrend}) bir kere hesaplanır;
+ *   her eşik kombinasyonu bu kolonlar üzerinde ucuz bir geçiştir.
+ * - Semboller ve kombinasyonlar ForkJoinPool'da paralel; aynı anda sadece çalışan sembollerin mumları bellekte.
+ * - Strateji: long-only; BUY / STRONG BUY kapanışta girer, SELL / STRONG SELL kapanışta çıkar, NEUTRAL pozisyonu korur.
+ *
+ * Çalıştırma (Spring gerekmez):
+ * <pre>
+ * java -cp target/classes com.example.kriptobot.Backtester --data=./klines --interval=1m \
+ *      --rsi-oversold=25,30 --macd=0.3,0.5 --buy=20,30 --out=backtest.csv
+ * </pre>
+ */
+public final class Backtester {
+
+    private final int intervalMinutes;
+    private final double feePct;
+    private final ForkJoinPool pool;
+
+    public Backtester(int intervalMinutes, double feePct, ForkJoinPool pool) {
+        this.intervalMinutes = intervalMinutes;
+        this.feePct = feePct;
+        this.pool = pool;
+    }
+
+    /**
+     * Tüm semboller x tüm kombinasyonlar; sonuç [sembol][kombinasyon], semboller map sırasında.
+     */
+    public Result[][] run(Map<String, List<Path>> files, List<SignalThresholds> grid) throws Exception {
+        List<String> symbols = new ArrayList<>(files.keySet());
+        Result[][] results = new Result[symbols.size()][];
+        pool.submit(() -> IntStream.range(0, symbols.size()).parallel().forEach(s -> {
+            String symbol = symbols.get(s);
+            try {
+                Columns columns = columns(CandleCsv.read(files.get(symbol)), intervalMinutes);
+                results[s] = run(symbol, columns, grid);
+            } catch (IOException e) {
+                System.err.println("Backtest: cannot read " + symbol + ": " + e.getMessage());
+                results[s] = new Result[0];
+            }
+        })).get();
+        return results;
+    }
+
+    /**
+     * Tek sembolün kolonları üzerinde tüm kombinasyonlar (iç içe paralel; iş çalma ile dengelenir).
+     */
+    Result[] run(String symbol, Columns c, List<SignalThresholds> grid) {
+        Result[] out = new Result[grid.size()];
+        IntStream.range(0, grid.size()).parallel()
+                .forEach(g -> out[g] = simulate(symbol, c, grid.get(g), feePct / 100.0));
+        return out;
+    }
+
+    /**
+     * Mumları canlı sistemdeki indikatörlerden geçirip bar başına sinyal girdilerini çıkarır.
+     * Trend için 1h / 24h / 7d / 30d değişimleri interval'e göre bar geriye bakarak hesaplanır.
+     */
+    static Columns columns(CandleSeries s, int intervalMinutes) {
+        int n = s.size();
+        int h1 = Math.max(1, 60 / intervalMinutes);
+        int d1 = Math.max(1, 1440 / intervalMinutes);
+        int d7 = Math.max(1, 10_080 / intervalMinutes);
+        int d30 = Math.max(1, 43_200 / intervalMinutes);
+
+        Columns c = new Columns(n);
+        SymbolIndicators ind = new SymbolIndicators(1);
+        double[] close = s.close;
+        for (int i = 0; i < n; i++) {
+            ind.update(close[i], s.volume[i]);
+            double price = close[i];
+            StreamingIndicators.Macd macd = ind.macd();
+            c.close[i] = price;
+            c.rsi[i] = ind.rsi();
+            c.macdPct[i] = price == 0 ? 0 : macd.histogram() / price * 100.0;
+            c.volume[i] = ind.volumeMultiplier();
+            if (i >= d30) {
+                c.trend[i] = TechnicalIndicators.analyzeTrend(
+                        pct(close[i - h1], price), pct(close[i - d1], price),
+                        pct(close[i - d7], price), pct(close[i - d30], price));
+            }
+        }
+        // 30 günlük değişim ve MACD sinyal hattı oturana kadar işlem yok
+        c.start = Math.min(n, Math.max(d30, 26 + 9));
+        return c;
+    }
+
+    static Result simulate(String symbol, Columns c, SignalThresholds t, double fee) {
+        double equity = 1.0;
+        double peak = 1.0;
+        double maxDrawdown = 0;
+        double entryEquity = 0;
+        boolean inPosition = false;
+        int trades = 0;
+        int wins = 0;
+
+        double[] close = c.close;
+        for (int i = c.start; i < c.size; i++) {
+            if (inPosition) {
+                equity *= close[i] / close[i - 1];
+            }
+
+            int score = TechnicalIndicators.signalScore(t, c.rsi[i], c.macdPct[i], c.trend[i], c.volume[i]);
+            SignalCode code = SignalCode.fromScore(score, t);
+            if (!inPosition && (code == SignalCode.BUY || code == SignalCode.STRONG_BUY)) {
+                entryEquity = equity;
+                equity *= 1 - fee;
+                inPosition = true;
+            } else if (inPosition && (code == SignalCode.SELL || code == SignalCode.STRONG_SELL)) {
+                equity *= 1 - fee;
+                inPosition = false;
+                trades++;
+                if (equity > entryEquity) wins++;
+            }
+
+            if (equity > peak) peak = equity;
+            else maxDrawdown = Math.max(maxDrawdown, 1 - equity / peak);
+        }
+        if (inPosition) {
+            // Açık pozisyon son kapanıştan kapatılır
+            equity *= 1 - fee;
+            trades++;
+            if (equity > entryEquity) wins++;
+            maxDrawdown = Math.max(maxDrawdown, 1 - equity / peak);
+        }
+
+        double buyAndHold = c.size > c.start ? pct(close[c.start], close[c.size - 1]) : 0;
+        return new Result(symbol, t, trades, trades == 0 ? 0 : (double) wins / trades,
+                (equity - 1) * 100, maxDrawdown * 100, buyAndHold);
+    }
+
+    private static double pct(double from, double to) {
+        return from == 0 ? 0 : (to / from - 1) * 100;
+    }
+
+    /**
+     * Bar başına sinyal girdileri; kombinasyonlar arasında paylaşılır, sadece okunur.
+     */
+    static final class Columns {
+        final int size;
+        int start;
+        final double[] close;
+        final double[] rsi;
+        final double[] macdPct;
+        final int[] trend;
+        final double[] volume;
+
+        Columns(int size) {
+            this.size = size;
+            close = new double[size];
+            rsi = new double[size];
+            macdPct = new double[size];
+            trend = new int[size];
+            volume = new double[size];
+        }
+    }
+
+    /**
+     * Bir sembol + eşik kombinasyonu sonucu. Yüzdeler 100 tabanlı.
+     */
+    public record Result(String symbol, SignalThresholds thresholds, int trades, double hitRate,
+                         double pnlPct, double maxDrawdownPct, double buyAndHoldPct) {
+    }
+
+    /**
+     * Kombinasyonun tüm semboller üzerinden özeti.
+     */
+    public record Summary(SignalThresholds thresholds, int symbols, int trades, double hitRate,
+                          double meanPnlPct, double worstDrawdownPct) {
+
+        static Summary of(SignalThresholds t, Result[][] results, int g) {
+            int symbols = 0, trades = 0;
+            double wins = 0, pnl = 0, worst = 0;
+            for (Result[] perSymbol : results) {
+                if (perSymbol.length == 0) continue;
+                Result r = perSymbol[g];
+                symbols++;
+                trades += r.trades();
+                wins += r.hitRate() * r.trades();
+                pnl += r.pnlPct();
+                worst = Math.max(worst, r.maxDrawdownPct());
+            }
+            return new Summary(t, symbols, trades, trades == 0 ? 0 : wins / trades,
+                    symbols == 0 ? 0 : pnl / symbols, worst);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (!a.startsWith("--") || eq < 0) {
+                System.err.println("Unknown argument: " + a);
+                System.exit(2);
+            }
+            opts.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        if (!opts.containsKey("data")) {
+            System.err.println("Usage: Backtester --data=<dir of Binance kline CSVs> [--interval=1m] [--fee=0.1]"
+                    + " [--threads=N] [--top=10] [--out=results.csv]"
+                    + " [--rsi-oversold=..] [--rsi-low=..] [--rsi-high=..] [--rsi-overbought=..]"
+                    + " [--macd=..] [--buy=..] [--strong-buy=..]  (comma separated lists)");
+            System.exit(2);
+        }
+
+        SignalThresholds d = SignalThresholds.DEFAULT;
+        List<SignalThresholds> grid = new ArrayList<>();
+        for (double oversold : doubles(opts, "rsi-oversold", d.rsiOversold()))
+            for (double low : doubles(opts, "rsi-low", d.rsiLow()))
+                for (double high : doubles(opts, "rsi-high", d.rsiHigh()))
+                    for (double overbought : doubles(opts, "rsi-overbought", d.rsiOverbought()))
+                        for (double macd : doubles(opts, "macd", d.macdStrong()))
+                            for (double buy : doubles(opts, "buy", d.buyScore()))
+                                for (double strong : doubles(opts, "strong-buy", d.strongBuyScore()))
+                                    grid.add(new SignalThresholds(oversold, low, high, overbought, macd, (int) buy, (int) strong));
+
+        Map<String, List<Path>> files = CandleCsv.discover(Path.of(opts.get("data")));
+        int threads = Integer.parseInt(opts.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        Backtester backtester = new Backtester(
+                intervalMinutes(opts.getOrDefault("interval", "1m")),
+                Double.parseDouble(opts.getOrDefault("fee", "0.1")),
+                new ForkJoinPool(threads));
+
+        System.out.println("Backtest: " + files.size() + " symbols x " + grid.size() + " combinations on " + threads + " threads");
+        long t0 = System.nanoTime();
+        Result[][] results = backtester.run(files, grid);
+        System.out.printf(Locale.ROOT, "Done in %.1fs%n", (System.nanoTime() - t0) / 1e9);
+
+        List<Summary> summaries = new ArrayList<>();
+        for (int g = 0; g < grid.size(); g++) {
+            summaries.add(Summary.of(grid.get(g), results, g));
+        }
+        summaries.sort(Comparator.comparingDouble(Summary::meanPnlPct).reversed());
+
+        int top = Integer.parseInt(opts.getOrDefault("top", "10"));
+        System.out.printf(Locale.ROOT, "%-52s %7s %8s %10s %10s%n", "thresholds", "trades", "hit%", "meanPnL%", "worstDD%");
+        for (Summary s : summaries.subList(0, Math.min(top, summaries.size()))) {
+            System.out.printf(Locale.ROOT, "%-52s %7d %8.1f %10.2f %10.2f%n",
+                    s.thresholds(), s.trades(), s.hitRate() * 100, s.meanPnlPct(), s.worstDrawdownPct());
+        }
+
+        if (opts.containsKey("out")) {
+            try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(Path.of(opts.get("out"))))) {
+                w.println("symbol,thresholds,trades,hit_rate,pnl_pct,max_drawdown_pct,buy_and_hold_pct");
+                for (Result[] perSymbol : results) {
+                    for (Result r : perSymbol) {
+                        w.printf(Locale.ROOT, "%s,%s,%d,%.4f,%.4f,%.4f,%.4f%n", r.symbol(), r.thresholds(),
+                                r.trades(), r.hitRate(), r.pnlPct(), r.maxDrawdownPct(), r.buyAndHoldPct());
+                    }
+                }
+            }
+            System.out.println("Per-symbol results: " + opts.get("out"));
+        }
+    }
+
+    private static double[] doubles(Map<String, String> opts, String key, double fallback) {
+        String v = opts.get(key);
+        if (v == null) return new double[]{fallback};
+        return Arrays.stream(v.split(",")).mapToDouble(s -> Double.parseDouble(s.trim())).toArray();
+    }
+
+    static int intervalMinutes(String interval) {
+        int value = Integer.parseInt(interval.substring(0, interval.length() - 1));
+        return switch (interval.charAt(interval.length() - 1)) {
+            case 'm' -> value;
+            case 'h' -> value * 60;
+            case 'd' -> value * 1440;
+            case 'w' -> value * 10_080;
+            default -> throw new IllegalArgumentException("Unknown interval: " + interval);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kriptobot;
+
+/**
+ * Tüm evren için tek geçişte trend skoru + paketlenmiş sinyal (kolon bazlı).
+ *
+ * TechnicalIndicators'daki if/else merdivenleri burada eşik basamaklarının toplamı olarak yazılır:
+ * her karşılaştırma 0/1'e çevrilir (cmov/setcc), döngüde dallanma yoktur ve JIT döngüyü
+ * unroll/vectorize edebilir. Sonuçlar skaler yol ile birebir aynıdır (NaN dahil).
+ */
+public final class BatchSignalScorer {
+
+    private BatchSignalScorer() {
+    }
+
+    /**
+     * Tablodaki RSI / MACD / hacim girdilerinden trendScore ve signal kolonlarını doldurur.
+     */
+    public static void score(MarketTable t) {
+        trendScores(t.change1h, t.change24h, t.change7d, t.change30d, t.trendScore, t.size);
+        signals(t.rsi, t.macdHistogram, t.trendScore, t.volumeMultiplier, t.signal, t.size);
+    }
+
+    /**
+     * {@link TechnicalIndicators#analyzeTrend} ile aynı; örn. 24h için
+     * -5 + 10[c&gt;0] + 10[c&gt;2] + 10[c&gt;5] - 10[c&lt;-2] - 10[c&lt;-5].
+     */
+    public static void trendScores(double[] change1h, double[] change24h, double[] change7d,
+                                   double[] change30d, int[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            double h = change1h[i];
+            double d = change24h[i];
+            double w = change7d[i];
+            double m = change30d[i];
+
+            int score = 5 * (b(h > 0.5) + b(h > 2) - b(h < -0.5) - b(h < -2))
+                    - 5 + 10 * (b(d > 0) + b(d > 2) + b(d > 5) - b(d < -2) - b(d < -5))
+                    - 10 + 20 * b(w > 0) + 10 * b(w > 5) + 15 * b(w > 15) - 10 * b(w < -5) - 15 * b(w < -15)
+                    - 10 + 20 * b(m > 0) + 10 * (b(m > 10) + b(m > 30) - b(m < -10) - b(m < -30));
+
+            out[i] = Math.max(-100, Math.min(100, score));
+        }
+    }
+
+    /**
+     * {@link TechnicalIndicators#packSignal} ile aynı çıktı (skor, güven, {@link SignalCode} ordinal).
+     */
+    public static void signals(double[] rsi, double[] macdHistogram, int[] trendScore,
+                               double[] volumeMultiplier, long[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            double r = rsi[i];
+            double h = macdHistogram[i];
+            double v = volumeMultiplier[i];
+
+            int s = 20 * (b(r <= 40) + b(r <= 30) - b(r >= 60) - b(r >= 70))
+                    - 15 + 30 * b(h > 0) + 15 * (b(h > 0.5) - b(h < -0.5))
+                    + (trendScore[i] * 20) / 100
+                    + 5 * (b(v > 1.5) + b(v > 2) - b(v < 0.5));
+
+            int confidence = Math.min(100, Math.abs(s));
+            // SignalCode.fromScore: >=60, >=30, >=-30, >=-60
+            int code = 4 - b(s >= -60) - b(s >= -30) - b(s >= 30) - b(s >= 60);
+            out[i] = (s & 0xFFFFFFFFL) | ((long) confidence << 32) | ((long) code << 40);
+        }
+    }
+
+    private static int b(boolean condition) {
+        return condition ? 1 : 0;
+    }
+}
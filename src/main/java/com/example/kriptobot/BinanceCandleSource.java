@@ -0,0 +1,105 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Binance /api/v3/klines üzerinden SYMBOLUSDT mumları.
+ * Cevap Jackson streaming ile doğrudan {@link CandleSeries} kolonlarına okunur.
+ * Binance son eleman olarak henüz kapanmamış güncel mumu da döner; kısmi hacmi ve kapanışı
+ * göstergeleri saat içinde kaydırdığı için closeTime'ı gelmemiş mumlar atlanır
+ * (bunun yerine bir fazla mum istenir).
+ * Limit / retry / devre kesici {@link UpstreamClient}'ta (Binance bütçesi ticker istekleriyle ortak).
+ */
+@Component
+public class BinanceCandleSource implements CandleSource {
+
+    // Binance sembolleri sadece A-Z / 0-9; diğerleri (ör. CoinGecko'daki "USD+", "ÖZ") URL'e girmeden elenir
+    private static final Pattern BINANCE_SYMBOL = Pattern.compile("[A-Z0-9]+");
+
+    private final JsonFactory json = new JsonFactory();
+    private final UpstreamClient upstream;
+    private final String baseUrl;
+
+    public BinanceCandleSource(
+            UpstreamClient upstream,
+            @Value("${kriptobot.binance.base-url:https://api.binance.com}") String baseUrl) {
+        this.upstream = upstream;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public CompletableFuture<CandleSeries> fetch(String symbol, String interval, int limit) {
+        if (!BINANCE_SYMBOL.matcher(symbol).matches()) {
+            return CompletableFuture.failedFuture(new UnsupportedSymbolException(symbol));
+        }
+        // Açık mum düşeceği için bir fazla (Binance üst sınırı 1000)
+        int request = Math.min(limit + 1, 1000);
+        String url = baseUrl + "/api/v3/klines?symbol=" + symbol + "USDT&interval=" + interval + "&limit=" + request;
+
+        HttpRequest req = UpstreamClient.get(url, Duration.ofSeconds(15));
+
+        return upstream.send(UpstreamClient.Provider.BINANCE, req)
+                .thenApply(res -> {
+                    try (InputStream body = res.body()) {
+                        // Binance bilinmeyen sembol için 400 {"code":-1121} döner
+                        if (res.statusCode() == 400) {
+                            throw new UnsupportedSymbolException(symbol);
+                        }
+                        if (res.statusCode() != 200) {
+                            throw new IllegalStateException("Binance klines HTTP " + res.statusCode() + " for " + symbol);
+                        }
+                        return parse(body, request, System.currentTimeMillis());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @param now epoch ms; closeTime'ı bundan küçük olmayan (henüz kapanmamış) mumlar atlanır
+     */
+    CandleSeries parse(InputStream body, int expected, long now) throws IOException {
+        CandleSeries series = new CandleSeries(expected);
+        try (JsonParser p = json.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected klines array");
+            }
+            // [openTime, "open", "high", "low", "close", "volume", closeTime, ...]
+            while (p.nextToken() == JsonToken.START_ARRAY) {
+                p.nextToken();
+                long t = p.getValueAsLong();
+                p.nextToken();
+                double o = p.getValueAsDouble();
+                p.nextToken();
+                double h = p.getValueAsDouble();
+                p.nextToken();
+                double l = p.getValueAsDouble();
+                p.nextToken();
+                double c = p.getValueAsDouble();
+                p.nextToken();
+                double v = p.getValueAsDouble();
+                p.nextToken();
+                long closeTime = p.getValueAsLong();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    p.skipChildren();
+                }
+                if (closeTime < now) {
+                    series.add(t, o, h, l, c, v);
+                }
+            }
+        }
+        return series;
+    }
+}
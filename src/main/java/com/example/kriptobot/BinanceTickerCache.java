@@ -0,0 +1,213 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binance'in tüm sembollerini tek istekte (/api/v3/ticker/24hr, parametresiz) çekip
+ * bellekte tutar. Var olan {@link Ticker} nesneleri yerinde güncellenir; her refresh'te
+ * sadece yeni listelenen semboller için nesne oluşur.
+ */
+@Component
+public class BinanceTickerCache {
+
+    private final JsonFactory json = new JsonFactory();
+    private final Map<String, Ticker> tickers = new ConcurrentHashMap<>(4096);
+
+    private final UpstreamClient upstream;
+    private final boolean enabled;
+    private final HttpRequest request;
+
+    public BinanceTickerCache(
+            UpstreamClient upstream,
+            @Value("${kriptobot.binance.base-url:https://api.binance.com}") String baseUrl,
+            @Value("${kriptobot.binance.bulk-ticker:true}") boolean enabled) {
+        this.upstream = upstream;
+        this.enabled = enabled;
+        // Parametresiz istek hep aynı; bir kez kurulur
+        this.request = UpstreamClient.get(baseUrl + "/api/v3/ticker/24hr", Duration.ofSeconds(20));
+    }
+
+    /**
+     * Tek sembolün son ticker'ı (ör. "BTCUSDT"); hiç görülmediyse null.
+     */
+    public Ticker get(String symbol) {
+        return tickers.get(symbol);
+    }
+
+    public int size() {
+        return tickers.size();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${kriptobot.binance.ticker-refresh:PT1M}")
+    void refresh() {
+        if (!enabled) return;
+        try {
+            HttpResponse<InputStream> res = upstream.send(UpstreamClient.Provider.BINANCE, request).get();
+            try (InputStream body = res.body()) {
+                if (res.statusCode() != 200) {
+                    // 451: bölgesel engel; getSignal tek sembol isteğine düşer
+                    System.err.println("Binance bulk ticker HTTP " + res.statusCode());
+                    return;
+                }
+                int n = parseInto(body);
+                System.out.println("Binance bulk ticker: " + n + " symbols");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Binance bulk ticker ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * CoinGecko düştüğünde kullanılan market tablosu.
+     * {@code base} doluysa aynı coinler, aynı sırada; taze USDT ticker'ı olanların fiyatı ve 24h değişimi
+     * güncellenir (market cap fiyatla orantılı kaydırılır), diğer kolonlar base'ten kalır.
+     * base boşsa USDT pariteleri quote hacmine göre sıralanıp ilk {@code limit} tanesi alınır.
+     *
+     * @return güncellenecek taze ticker yoksa null
+     */
+    public MarketTable marketFallback(MarketTable base, int limit, Duration maxAge) {
+        if (base != null && base.size() > 0) {
+            MarketTable table = base.copy();
+            int updated = 0;
+            for (int i = 0; i < table.size(); i++) {
+                Ticker t = tickers.get(table.symbol[i] + "USDT");
+                if (t == null || t.lastPrice() <= 0 || t.age().compareTo(maxAge) > 0) continue;
+                if (table.price[i] > 0) {
+                    table.marketCap[i] *= t.lastPrice() / table.price[i];
+                }
+                table.price[i] = t.lastPrice();
+                table.change24h[i] = t.priceChangePercent();
+                updated++;
+            }
+            return updated > 0 ? table : null;
+        }
+
+        List<Ticker> usdt = new ArrayList<>();
+        for (Ticker t : tickers.values()) {
+            if (t.symbol.endsWith("USDT") && t.symbol.length() > 4 && t.lastPrice() > 0
+                    && t.age().compareTo(maxAge) <= 0) {
+                usdt.add(t);
+            }
+        }
+        if (usdt.isEmpty()) return null;
+        usdt.sort(Comparator.comparingDouble(Ticker::quoteVolume).reversed());
+
+        MarketTable table = new MarketTable(Math.min(limit, usdt.size()));
+        for (int k = 0; k < usdt.size() && k < limit; k++) {
+            Ticker t = usdt.get(k);
+            String symbol = t.symbol.substring(0, t.symbol.length() - 4);
+            int row = table.addRow();
+            table.id[row] = symbol.toLowerCase(Locale.ROOT);
+            table.symbol[row] = symbol;
+            table.price[row] = t.lastPrice();
+            table.volume[row] = t.quoteVolume();
+            table.change24h[row] = t.priceChangePercent();
+        }
+        return table;
+    }
+
+    /**
+     * Tek sembol cevabını (fallback yolu) da aynı haritaya işler.
+     */
+    void put(String symbol, double priceChangePercent, double lastPrice, double quoteVolume, long closeTime) {
+        tickers.computeIfAbsent(symbol, Ticker::new).update(priceChangePercent, lastPrice, quoteVolume, closeTime);
+    }
+
+    int parseInto(InputStream body) throws IOException {
+        int count = 0;
+        try (JsonParser p = json.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected ticker array");
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                String symbol = null;
+                double change = 0, last = 0, quoteVolume = 0;
+                long closeTime = 0;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    switch (field) {
+                        case "symbol" -> symbol = p.getText();
+                        case "priceChangePercent" -> change = p.getValueAsDouble();
+                        case "lastPrice" -> last = p.getValueAsDouble();
+                        case "quoteVolume" -> quoteVolume = p.getValueAsDouble();
+                        case "closeTime" -> closeTime = p.getValueAsLong();
+                        default -> p.skipChildren();
+                    }
+                }
+
+                if (symbol != null) {
+                    put(symbol, change, last, quoteVolume, closeTime);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Bir sembolün 24h özeti. Alanlar refresh'te yerinde yazılır.
+     * Tazelik ({@link #age()}) bu süreçte son yazılma anından ölçülür (yerel saat, en son yazılan alan);
+     * {@code closeTime} Binance'in 24h penceresinin bitişi, sadece bilgi olarak taşınır.
+     */
+    public static final class Ticker {
+        public final String symbol;
+        private volatile double priceChangePercent;
+        private volatile double lastPrice;
+        private volatile double quoteVolume;
+        private volatile long closeTime;
+        private volatile long updatedAtMillis;
+
+        Ticker(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void update(double priceChangePercent, double lastPrice, double quoteVolume, long closeTime) {
+            this.priceChangePercent = priceChangePercent;
+            this.lastPrice = lastPrice;
+            this.quoteVolume = quoteVolume;
+            this.closeTime = closeTime;
+            this.updatedAtMillis = System.currentTimeMillis();
+        }
+
+        public double priceChangePercent() {
+            return priceChangePercent;
+        }
+
+        public double lastPrice() {
+            return lastPrice;
+        }
+
+        public double quoteVolume() {
+            return quoteVolume;
+        }
+
+        public long closeTime() {
+            return closeTime;
+        }
+
+        public Duration age() {
+            return Duration.ofMillis(System.currentTimeMillis() - updatedAtMillis);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.kriptobot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Binance data dump (data.binance.vision) kline CSV okuyucu:
+ * open_time,open,high,low,close,volume,close_time,... (başlık satırı opsiyonel).
+ *
+ * Dosya adları "BTCUSDT-1m-2024-01.csv" gibi; aynı sembolün aylık dosyaları ada göre sıralanıp birleştirilir.
+ * Satırlar String'e çevrilmeden byte seviyesinde parse edilir.
+ */
+public final class CandleCsv {
+
+    // 10^0..10^22 double olarak tam temsil edilir
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private CandleCsv() {
+    }
+
+    /**
+     * Dizindeki CSV'leri sembole göre gruplar (dosya adında ilk '-' veya '.' öncesi).
+     */
+    public static Map<String, List<Path>> discover(Path dir) throws IOException {
+        Map<String, List<Path>> bySymbol = new TreeMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(".csv"))
+                    .sorted()
+                    .forEach(p -> {
+                        String name = p.getFileName().toString();
+                        int cut = name.indexOf('-');
+                        if (cut < 0) cut = name.indexOf('.');
+                        bySymbol.computeIfAbsent(name.substring(0, cut), k -> new ArrayList<>()).add(p);
+                    });
+        }
+        return bySymbol;
+    }
+
+    public static CandleSeries read(List<Path> files) throws IOException {
+        CandleSeries series = new CandleSeries(1 << 16);
+        for (Path file : files) {
+            try (InputStream in = Files.newInputStream(file)) {
+                readInto(in, series);
+            }
+        }
+        return series;
+    }
+
+    static void readInto(InputStream in, CandleSeries into) throws IOException {
+        byte[] buf = new byte[1 << 16];
+        byte[] line = new byte[512];
+        double[] fields = new double[6];
+        int len = 0;
+        int n;
+        while ((n = in.read(buf)) > 0) {
+            for (int i = 0; i < n; i++) {
+                byte b = buf[i];
+                if (b == '\n') {
+                    parseLine(line, len, fields, into);
+                    len = 0;
+                } else if (len < line.length) {
+                    line[len++] = b;
+                }
+            }
+        }
+        if (len > 0) {
+            parseLine(line, len, fields, into);
+        }
+    }
+
+    // İlk 6 alan: open_time, open, high, low, close, volume
+    private static void parseLine(byte[] line, int len, double[] fields, CandleSeries into) {
+        if (len > 0 && line[len - 1] == '\r') len--;
+        if (len == 0 || line[0] < '0' || line[0] > '9') return; // boş satır veya başlık
+
+        int field = 0;
+        int start = 0;
+        for (int i = 0; i <= len && field < 6; i++) {
+            if (i == len || line[i] == ',') {
+                fields[field++] = parseDecimal(line, start, i);
+                start = i + 1;
+            }
+        }
+        if (field < 6) return;
+        into.add((long) fields[0], fields[1], fields[2], fields[3], fields[4], fields[5]);
+    }
+
+    /**
+     * "123.45600000" gibi düz ondalıklar; mantis 2^53'e sığıyorsa tek bir (tam doğru yuvarlanan)
+     * bölme ile, değilse Double.parseDouble ile.
+     */
+    static double parseDecimal(byte[] s, int from, int to) {
+        boolean negative = from < to && s[from] == '-';
+        int i = negative ? from + 1 : from;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        for (; i < to; i++) {
+            byte c = s[i];
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    if (dot) scale++;
+                } else {
+                    return slow(s, from, to);
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return slow(s, from, to);
+            }
+        }
+        double v;
+        if (mantissa < (1L << 53) && scale < POW10.length) {
+            v = mantissa / POW10[scale];
+        } else {
+            return slow(s, from, to);
+        }
+        return negative ? -v : v;
+    }
+
+    private static double slow(byte[] s, int from, int to) {
+        return Double.parseDouble(new String(s, from, to - from, StandardCharsets.US_ASCII));
+    }
+}
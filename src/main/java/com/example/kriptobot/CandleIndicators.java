@@ -0,0 +1,22 @@
+package com.example.kriptobot;
+
+/**
+ * Gerçek mumlardan hesaplanmış indikatör değerleri (bir sembol, son mum itibarıyla).
+ */
+public record CandleIndicators(
+        double rsi,
+        double macdLine,
+        double macdSignal,
+        double macdHistogram,
+        double volumeMultiplier,
+        double lastClose,
+        long lastCandleTime) {
+
+    /**
+     * MACD histogramı fiyatın yüzdesi olarak; generateSignal eşikleri (±0.5)
+     * böylece BTC ile küçük altcoinlerde aynı anlama gelir.
+     */
+    public double macdHistogramPct() {
+        return lastClose == 0 ? 0 : macdHistogram / lastClose * 100.0;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.kriptobot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takip edilen semboller için mumları çekip gerçek RSI / MACD / hacim çarpanı hesaplar.
+ * - İstekler async; Binance ağırlık limiti {@link UpstreamClient}'ın Binance bütçesinde
+ * - Mumlar sembol başına kolon bazlı {@link CandleSeries} olarak saklanır
+ * - Kaynakta olmayan semboller (ör. Binance'te USDT paritesi yok) bir daha sorulmaz
+ * - Süre dolarsa gelen kadarıyla yetinilir, gelmeyenler için önceki değer korunur
+ */
+@Component
+public class CandlePipeline {
+
+    private final CandleSource source;
+    private final boolean enabled;
+    private final int maxSymbols;
+    private final String interval;
+    private final int limit;
+    private final Duration ttl;
+    private final Duration timeout;
+
+    private final Map<String, CandleSeries> store = new ConcurrentHashMap<>();
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    private volatile Map<String, CandleIndicators> indicators = Map.of();
+    private volatile Instant lastRun = Instant.EPOCH;
+
+    public CandlePipeline(
+            CandleSource source,
+            @Value("${kriptobot.candles.enabled:true}") boolean enabled,
+            @Value("${kriptobot.candles.symbols:250}") int maxSymbols,
+            @Value("${kriptobot.candles.interval:1h}") String interval,
+            @Value("${kriptobot.candles.limit:100}") int limit,
+            @Value("${kriptobot.candles.ttl:PT15M}") Duration ttl,
+            @Value("${kriptobot.candles.timeout:PT2M}") Duration timeout) {
+        this.source = source;
+        this.enabled = enabled;
+        this.maxSymbols = maxSymbols;
+        this.interval = interval;
+        this.limit = limit;
+        this.ttl = ttl;
+        this.timeout = timeout;
+    }
+
+    /** Son başarılı hesaplama; sembol için mum yoksa null. */
+    public CandleIndicators indicators(String symbol) {
+        return indicators.get(symbol);
+    }
+
+    public CandleSeries candles(String symbol) {
+        return store.get(symbol);
+    }
+
+    public boolean isDue(Instant now) {
+        return enabled && Duration.between(lastRun, now).compareTo(ttl) >= 0;
+    }
+
+    /**
+     * Verilen sembollerden ilk {@code maxSymbols} tanesinin mumlarını çeker.
+     *
+     * @return indikatörü güncellenen sembol sayısı
+     */
+    public CompletableFuture<Integer> refresh(List<String> symbols) {
+        lastRun = Instant.now();
+
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String s : symbols) {
+            if (wanted.size() >= maxSymbols) break;
+            if (!unsupported.contains(s)) wanted.add(s);
+        }
+
+        Map<String, CandleIndicators> fresh = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> calls = new ArrayList<>(wanted.size());
+        for (String symbol : wanted) {
+            calls.add(fetch(symbol)
+                    .handle((series, err) -> {
+                        if (err == null) {
+                            store.put(symbol, series);
+                            fresh.put(symbol, series.indicators());
+                        } else if (unwrap(err) instanceof CandleSource.UnsupportedSymbolException) {
+                            unsupported.add(symbol);
+                            store.remove(symbol);
+                        }
+                        return null;
+                    }));
+        }
+
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(v -> {
+                    Map<String, CandleIndicators> merged = new HashMap<>(indicators);
+                    merged.keySet().retainAll(wanted);
+                    merged.putAll(fresh);
+                    store.keySet().retainAll(wanted);
+                    indicators = Map.copyOf(merged);
+                    System.out.println("Candles: " + fresh.size() + "/" + wanted.size() + " symbols updated");
+                    return fresh.size();
+                });
+    }
+
+    // Kaynak future yerine senkron hata fırlatırsa (ör. geçersiz URL) sadece o sembol desteklenmiyor sayılır;
+    // döngü yarıda kalıp diğer sembollerin indikatörlerini dondurmaz
+    private CompletableFuture<CandleSeries> fetch(String symbol) {
+        try {
+            return source.fetch(symbol, interval, limit);
+        } catch (RuntimeException e) {
+            System.err.println("Candles: " + symbol + " skipped: " + e.getMessage());
+            return CompletableFuture.failedFuture(new CandleSource.UnsupportedSymbolException(symbol));
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+}
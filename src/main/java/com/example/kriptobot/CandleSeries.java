@@ -0,0 +1,82 @@
+package com.example.kriptobot;
+
+import java.util.Arrays;
+
+/**
+ * Tek sembolün OHLCV mumları, kolon bazlı primitive dizilerde (eskiden yeniye).
+ * Doldurulduktan sonra değişmez. Sadece kapanmış mumlar; açık mum kaynakta elenir.
+ */
+public final class CandleSeries {
+
+    int size;
+    long[] openTime;
+    double[] open;
+    double[] high;
+    double[] low;
+    double[] close;
+    double[] volume;
+
+    public CandleSeries(int capacity) {
+        int cap = Math.max(1, capacity);
+        openTime = new long[cap];
+        open = new double[cap];
+        high = new double[cap];
+        low = new double[cap];
+        close = new double[cap];
+        volume = new double[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long openTime(int i) {
+        return openTime[i];
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public double volume(int i) {
+        return volume[i];
+    }
+
+    void add(long t, double o, double h, double l, double c, double v) {
+        if (size == close.length) {
+            int cap = close.length * 2;
+            openTime = Arrays.copyOf(openTime, cap);
+            open = Arrays.copyOf(open, cap);
+            high = Arrays.copyOf(high, cap);
+            low = Arrays.copyOf(low, cap);
+            close = Arrays.copyOf(close, cap);
+            volume = Arrays.copyOf(volume, cap);
+        }
+        openTime[size] = t;
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+    }
+
+    /**
+     * Seriyi baştan {@link SymbolIndicators}'a besleyip son değerleri döner.
+     */
+    public CandleIndicators indicators() {
+        SymbolIndicators ind = new SymbolIndicators(size);
+        for (int i = 0; i < size; i++) {
+            ind.update(close[i], volume[i]);
+        }
+        StreamingIndicators.Macd macd = ind.macd();
+        return new CandleIndicators(
+                ind.rsi(),
+                macd.line(),
+                macd.signal(),
+                macd.histogram(),
+                ind.volumeMultiplier(),
+                ind.lastClose(),
+                size == 0 ? 0 : openTime[size - 1]);
+    }
+}
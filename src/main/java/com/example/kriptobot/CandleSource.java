@@ -0,0 +1,22 @@
+package com.example.kriptobot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OHLCV mum kaynağı. Varsayılanı {@link BinanceCandleSource}; testlerde yerel fixture
+ * sunucusuna bakan bir base URL ya da başka bir implementasyon verilebilir.
+ */
+public interface CandleSource {
+
+    /**
+     * @param symbol CoinGecko sembolü (ör. "BTC")
+     * @return mumlar; sembol bu kaynakta yoksa {@link UnsupportedSymbolException} ile tamamlanır
+     */
+    CompletableFuture<CandleSeries> fetch(String symbol, String interval, int limit);
+
+    class UnsupportedSymbolException extends RuntimeException {
+        public UnsupportedSymbolException(String symbol) {
+            super("Unsupported symbol: " + symbol);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.kriptobot;
+
+import java.time.Duration;
+
+/**
+ * Provider başına devre kesici.
+ * - CLOSED: istekler geçer; art arda {@code failureThreshold} hata OPEN yapar
+ * - OPEN: {@code openDuration} boyunca istek gönderilmez, çağıran hemen fallback'e düşer
+ * - HALF_OPEN: süre dolunca en fazla {@code halfOpenProbes} deneme geçer (her biri tek istek veya
+ *   {@link UpstreamClient#sendAll} grubu); ilk sonuç başarılıysa CLOSED, değilse tekrar OPEN.
+ *   Birden fazla hak: aynı anda başlayan iki işten (ör. market + FX) biri boşuna reddedilmesin
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private int probesInFlight;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenProbes) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * İstek gönderilebilir mi; HALF_OPEN'da sadece ilk {@code halfOpenProbes} çağırana true döner.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) return false;
+                state = State.HALF_OPEN;
+                probesInFlight = 1;
+                return true;
+            default:
+                if (probesInFlight >= halfOpenProbes) return false;
+                probesInFlight++;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probesInFlight = 0;
+    }
+
+    /**
+     * @return bu hata devreyi açtıysa true
+     */
+    synchronized boolean onFailure() {
+        probesInFlight = 0;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            boolean opened = state != State.OPEN;
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            return opened;
+        }
+        return false;
+    }
+
+    synchronized State state() {
+        // Süresi dolmuş OPEN, bir sonraki istekte deneme yapılacağı için dışarıya HALF_OPEN görünür
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) return State.HALF_OPEN;
+        return state;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.kriptobot;
+
+import java.time.Instant;
+
+/**
+ * /api/coin/{symbol} cevabı: snapshot satırı + tam sinyal analizi.
+ * signal / color / confidence / analysis / rsi / trendScore / recommendation alanları
+ * eski {@link TechnicalIndicators.SignalResult} cevabıyla aynı isimde kalır.
+ *
+ * @param candles mum bazlı indikatörler; sembolün Binance mumu yoksa null
+ * @param binance Binance 24h ticker sinyali; ticker alınamadıysa null
+ */
+public record CoinDetail(
+        String symbol,
+        String id,
+        Instant fetchedAt,
+        double price,
+        double marketCap,
+        double volume,
+        double change1h,
+        double change24h,
+        double change7d,
+        double change30d,
+        String signal,
+        String color,
+        int confidence,
+        int score,
+        String analysis,
+        String recommendation,
+        double rsi,
+        int trendScore,
+        double macdHistogram,
+        double volumeMultiplier,
+        boolean candleBacked,
+        CandleIndicators candles,
+        TechnicalAnalysisService.SignalResult binance) {
+}
@@ -0,0 +1,82 @@
+package com.example.kriptobot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * /api/coin/{symbol} detayları, boyutu sınırlı TTL'li LRU cache arkasında.
+ * - Detay sembol başına TTL içinde bir kez hesaplanır; aynı anda gelen istekler aynı hesaplamayı bekler
+ * - Binance tek sembol isteği (bulk ticker bayatsa) sadece bu hesaplamada yapılır: TTL başına en fazla bir
+ * - Sadece son snapshot'ta olan semboller cache'e girer; bilinmeyen semboller cache'i doldurmaz
+ * - Yeni market snapshot'ında cache boşaltılır
+ */
+@Service
+public class CoinDetailService {
+
+    private final CoinService coinService;
+    private final TechnicalAnalysisService technicalAnalysis;
+    private final CandlePipeline candles;
+    private final TtlLruCache<String, CoinDetail> cache;
+    private final Counter lookups;
+    private final Counter computed;
+
+    public CoinDetailService(
+            CoinService coinService,
+            TechnicalAnalysisService technicalAnalysis,
+            CandlePipeline candles,
+            MeterRegistry metrics,
+            @Value("${kriptobot.detail.cache-size:512}") int cacheSize,
+            @Value("${kriptobot.detail.ttl:PT1M}") Duration ttl) {
+        this.coinService = coinService;
+        this.technicalAnalysis = technicalAnalysis;
+        this.candles = candles;
+        this.cache = new TtlLruCache<>(cacheSize, ttl.toNanos());
+
+        this.lookups = Counter.builder("kriptobot.detail.cache.requests").register(metrics);
+        this.computed = Counter.builder("kriptobot.detail.cache.computed").register(metrics);
+        Gauge.builder("kriptobot.detail.cache.size", cache, TtlLruCache::size).register(metrics);
+    }
+
+    /**
+     * @return sembol son snapshot'ta yoksa null
+     */
+    public CoinDetail detail(String symbol) {
+        String key = symbol.toUpperCase(Locale.ROOT);
+        if (coinService.getSnapshot().row(key) < 0) return null;
+        lookups.increment();
+        return cache.get(key, this::compute).join();
+    }
+
+    @EventListener
+    void onMarketRefreshed(MarketRefreshedEvent event) {
+        cache.clear();
+    }
+
+    private CoinDetail compute(String symbol) {
+        computed.increment();
+        MarketSnapshot snapshot = coinService.peekSnapshot();
+        int row = snapshot.row(symbol);
+        if (row < 0) return null;
+
+        MarketTable t = snapshot.table();
+        TechnicalIndicators.SignalResult s = CoinService.explain(t, row);
+        TechnicalAnalysisService.SignalResult binance = technicalAnalysis.getSignal(symbol + "USDT");
+
+        return new CoinDetail(
+                t.symbol[row], t.id[row], snapshot.fetchedAt(),
+                t.price[row], t.marketCap[row], t.volume[row],
+                t.change1h[row], t.change24h[row], t.change7d[row], t.change30d[row],
+                s.signal, s.color, s.confidence, TechnicalIndicators.packedScore(t.signal[row]),
+                s.analysis, s.recommendation, s.rsi, s.trendScore,
+                t.macdHistogram[row], t.volumeMultiplier[row], t.candleBacked[row],
+                candles.indicators(t.symbol[row]),
+                "NO_DATA".equals(binance.regime) ? null : binance);
+    }
+}
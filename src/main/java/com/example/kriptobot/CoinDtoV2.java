@@ -0,0 +1,45 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+
+/**
+ * /api/v2/piyasa satırı: sayılar formatlanmamış JSON number, sinyal {@link SignalCode} ordinal'i.
+ * Kod -> etiket/renk eşlemesi cevabın "signals" dizisinde.
+ * Fiyat fmtMoney'nin hanesine, değişim 2 haneye yuvarlanarak yazılır: ham double'ların
+ * uzun kuyrukları (67234.12000000001) gövdeyi büyütür ve gzip'te iyi sıkışmaz.
+ */
+public record CoinDtoV2(String symbol,
+                        @JsonSerialize(using = Money.class) double price,
+                        @JsonSerialize(using = Pct.class) double change24h,
+                        int confidence, int signal) {
+
+    static final class Money extends JsonSerializer<Double> {
+        @Override
+        public void serialize(Double v, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (v == 0) gen.writeNumber(0);
+            else write(gen, v, FastDecimal.moneyScale(v));
+        }
+    }
+
+    static final class Pct extends JsonSerializer<Double> {
+        @Override
+        public void serialize(Double v, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(gen, v, 2);
+        }
+    }
+
+    private static void write(JsonGenerator gen, double v, int scale) throws IOException {
+        if (!Double.isFinite(v)) {
+            gen.writeNumber(v);
+            return;
+        }
+        StringBuilder sb = new StringBuilder(24);
+        FastDecimal.appendTo(sb, v, scale);
+        gen.writeNumber(sb.toString());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoinGecko /coins/markets sayfalarını paralel çeker.
+ * - İstekler {@link UpstreamClient} üzerinden: dakikalık bütçe, 429 / 5xx retry ve devre kesici orada
+ * - Tüm sayfalar gelmeden sonuç dönmez; tek bir sayfa bile düşerse refresh başarısız sayılır
+ * - Sayfa başına ağ (retry'lar dahil, header'lara kadar) ve parse süreleri ayrı ölçülür
+ */
+@Component
+public class CoinGeckoMarketFetcher {
+
+    private final MarketJsonParser parser = new MarketJsonParser(new JsonFactory());
+
+    private final UpstreamClient upstream;
+    private final Timer networkTimer;
+    private final Timer parseTimer;
+    private final String baseUrl;
+    private final int pages;
+    private final int perPage;
+
+    public CoinGeckoMarketFetcher(
+            UpstreamClient upstream,
+            MeterRegistry metrics,
+            @Value("${kriptobot.coingecko.base-url:https://api.coingecko.com/api/v3}") String baseUrl,
+            @Value("${kriptobot.coins.pages:1}") int pages,
+            @Value("${kriptobot.coins.per-page:250}") int perPage) {
+        this.upstream = upstream;
+        this.networkTimer = stageTimer(metrics, "network");
+        this.parseTimer = stageTimer(metrics, "parse");
+        this.baseUrl = baseUrl;
+        this.pages = Math.max(1, pages);
+        this.perPage = Math.max(1, Math.min(250, perPage));
+    }
+
+    public int expectedCoins() {
+        return pages * perPage;
+    }
+
+    /** Devre açıksa fetch hiç başlamadan başarısız olur; CoinService doğrudan fallback'e gider. */
+    public boolean isAvailable() {
+        return upstream.isAvailable(UpstreamClient.Provider.COINGECKO);
+    }
+
+    /**
+     * Tüm sayfaları çekip market cap sırasıyla tek bir tabloda birleştirir.
+     * Sayfa sınırlarında kayan coinler (aynı id iki sayfada) bir kez alınır.
+     */
+    public CompletableFuture<MarketTable> fetchAll() {
+        List<HttpRequest> requests = new ArrayList<>(pages);
+        for (int page = 1; page <= pages; page++) {
+            requests.add(UpstreamClient.get(pageUrl(page), Duration.ofSeconds(30)));
+        }
+        // Tüm sayfalar tek devre izniyle: kesintiden sonraki deneme refresh'i sayfa 2..N'i kaybetmez
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<InputStream>>> responses =
+                upstream.sendAll(UpstreamClient.Provider.COINGECKO, requests);
+        List<CompletableFuture<MarketTable>> futures = new ArrayList<>(pages);
+        for (int page = 1; page <= pages; page++) {
+            futures.add(parsePage(page, start, responses.get(page - 1)));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(v -> {
+                    MarketTable merged = new MarketTable(expectedCoins());
+                    Set<String> seen = new HashSet<>(expectedCoins() * 2);
+                    for (CompletableFuture<MarketTable> f : futures) {
+                        MarketTable page = f.join();
+                        for (int i = 0; i < page.size(); i++) {
+                            if (seen.add(page.id[i])) {
+                                merged.copyRowFrom(page, i);
+                            }
+                        }
+                    }
+                    return merged;
+                });
+    }
+
+    private CompletableFuture<MarketTable> parsePage(int page, long start,
+                                                     CompletableFuture<HttpResponse<InputStream>> response) {
+        return response.thenApply(res -> {
+            long received = System.nanoTime();
+            networkTimer.record(received - start, TimeUnit.NANOSECONDS);
+            MarketTable table = parse(page, res);
+            parseTimer.record(System.nanoTime() - received, TimeUnit.NANOSECONDS);
+            return table;
+        });
+    }
+
+    static Timer stageTimer(MeterRegistry metrics, String stage) {
+        return Timer.builder("kriptobot.market.fetch")
+                .description("CoinGecko market refresh stage duration")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(metrics);
+    }
+
+    private MarketTable parse(int page, HttpResponse<InputStream> res) {
+        int status = res.statusCode();
+        try (InputStream body = res.body()) {
+            if (status != 200) {
+                String snippet = new String(body.readNBytes(500), StandardCharsets.UTF_8);
+                throw new IOException("CoinGecko page " + page + " HTTP " + status + ": " + snippet);
+            }
+            MarketTable table = new MarketTable(perPage);
+            parser.parseInto(body, table);
+            return table;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String pageUrl(int page) {
+        return baseUrl + "/coins/markets" +
+                "?vs_currency=usd" +
+                "&order=market_cap_desc" +
+                "&per_page=" + perPage +
+                "&page=" + page +
+                "&sparkline=false" +
+                "&price_change_percentage=1h,24h,7d,30d";
+    }
+}
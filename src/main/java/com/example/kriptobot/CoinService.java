@@ -1,163 +1,404 @@
 package com.example.kriptobot;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class CoinService {
 
-  private static final Duration CACHE_TTL = Duration.ofMinutes(15);
+  // 429 sonrası upstream'i hemen tekrar dövmemek için
+  private static final Duration RETRY_BACKOFF = Duration.ofSeconds(30);
+  // Soğuk cache'te isteğin en fazla bekleyeceği süre
+  private static final Duration COLD_WAIT = Duration.ofSeconds(35);
+  // Tüm sayfalar (retry'lar dahil) için üst sınır
+  private static final Duration FETCH_TIMEOUT = Duration.ofMinutes(5);
+  // Fallback tablosu için Binance ticker'ı en fazla bu kadar eski olabilir
+  private static final Duration FALLBACK_MAX_AGE = Duration.ofMinutes(5);
 
-  private final ObjectMapper om = new ObjectMapper();
-  private final HttpClient http = HttpClient.newBuilder()
-      .connectTimeout(Duration.ofSeconds(15))
-      .build();
+  private final Duration cacheTtl;
+  private final Duration refreshSla;
+
+  private final CoinGeckoMarketFetcher fetcher;
+  private final BinanceTickerCache tickers;
+  private final CandlePipeline candles;
+  private final ObjectMapper om;
+  private final ApplicationEventPublisher events;
+  private final WarmStartStore warmStart;
+
+  // Metrikler: sıcak yolda sadece önceden kayıtlı meter'lara increment / record
+  private final Timer signalTimer;
+  private final Timer refreshLive;
+  private final Timer refreshFallback;
+  private final Timer refreshFailed;
+  private final Counter cacheHit;
+  private final Counter cacheStale;
+  private final Counter cacheMiss;
+  private final Counter scoreFailures;
+
+  // Tek thread = single-flight sırası; refresh upstream'i beklerken virtual thread olduğu için carrier'ı tutmaz
+  private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+      Thread.ofVirtual().name("coin-refresh").factory());
+
+  // Single-flight: aynı anda en fazla bir upstream fetch
+  private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+  // İlk snapshot yayınlanınca tamamlanır; soğuk istek refresh'in sonunu (ör. fallback sonrası) beklemez
+  private final CompletableFuture<Void> firstPublish = new CompletableFuture<>();
 
   private volatile Instant lastFetch = Instant.EPOCH;
-  private volatile List<CoinDto> cache = new ArrayList<>();
+  private volatile Instant nextAttempt = Instant.EPOCH;
+  private volatile MarketSnapshot cache = MarketSnapshot.EMPTY;
+  // Yayındaki snapshot'ın kaynağı: LIVE (CoinGecko), FALLBACK (Binance ticker) veya STALE (warm start)
+  private volatile String regime = "LIVE";
 
-  public List<CoinDto> getPiyasa() {
-    refreshIfNeeded();
-    return new ArrayList<>(cache);
+  public CoinService(CoinGeckoMarketFetcher fetcher, BinanceTickerCache tickers, CandlePipeline candles,
+                     ObjectMapper om, ApplicationEventPublisher events, WarmStartStore warmStart,
+                     MeterRegistry metrics,
+                     @Value("${kriptobot.coins.cache-ttl:PT15M}") Duration cacheTtl,
+                     @Value("${kriptobot.coins.refresh-sla:PT90S}") Duration refreshSla) {
+    this.fetcher = fetcher;
+    this.tickers = tickers;
+    this.candles = candles;
+    this.om = om;
+    this.events = events;
+    this.warmStart = warmStart;
+    this.cacheTtl = cacheTtl;
+    this.refreshSla = refreshSla;
+
+    this.signalTimer = CoinGeckoMarketFetcher.stageTimer(metrics, "signal");
+    this.refreshLive = refreshTimer(metrics, "live");
+    this.refreshFallback = refreshTimer(metrics, "fallback");
+    this.refreshFailed = refreshTimer(metrics, "failed");
+    this.cacheHit = cacheCounter(metrics, "hit");
+    this.cacheStale = cacheCounter(metrics, "stale");
+    this.cacheMiss = cacheCounter(metrics, "miss");
+    this.scoreFailures = Counter.builder("kriptobot.market.score.failures")
+        .description("Scoring / snapshot build failures; the previous snapshot stays published")
+        .register(metrics);
+    Gauge.builder("kriptobot.market.cache.age", this,
+            s -> s.cache.isEmpty() ? Double.NaN : Duration.between(s.cache.fetchedAt(), Instant.now()).toMillis() / 1000.0)
+        .baseUnit("seconds").register(metrics);
+    Gauge.builder("kriptobot.market.cache.size", this, s -> s.cache.table().size())
+        .baseUnit("coins").register(metrics);
   }
 
-  private void refreshIfNeeded() {
-    Instant now = Instant.now();
-    long cacheAge = Duration.between(lastFetch, now).toMinutes();
-    
-    if (cacheAge >= 15 || cache.isEmpty()) {
-      System.out.println("Fetching top 250 coins from CoinGecko...");
-      List<CoinDto> newData = fetchTopCoins();
-      
-      if (!newData.isEmpty()) {
-        cache = newData;
-        lastFetch = now;
-        System.out.println("SUCCESS: " + newData.size() + " coins cached");
-      } else {
-        System.err.println("Failed to fetch, using old cache (" + cache.size() + " coins)");
-      }
+  private static Timer refreshTimer(MeterRegistry metrics, String result) {
+    return Timer.builder("kriptobot.market.refresh")
+        .description("Full market refresh, by outcome")
+        .tag("result", result)
+        .register(metrics);
+  }
+
+  private static Counter cacheCounter(MeterRegistry metrics, String result) {
+    return Counter.builder("kriptobot.market.cache.requests")
+        .tag("result", result)
+        .register(metrics);
+  }
+
+  /**
+   * Uygulama ready olmadan önce diskteki son snapshot'ı yükler (regime STALE).
+   * lastFetch EPOCH kaldığı için ilk istek / schedule hemen canlı refresh başlatır.
+   */
+  @PostConstruct
+  void restore() {
+    WarmStartStore.Loaded loaded = warmStart.load();
+    if (loaded == null || loaded.table() == null) return;
+    try {
+      cache = snapshot(loaded.table(), loaded.fetchedAt(), "STALE");
+      regime = "STALE";
+    } catch (Exception e) {
+      System.err.println("Warm start restore failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Cache'i request thread'ini bloklamadan döner (stale-while-revalidate).
+   * Sadece cache hiç dolmamışsa devam eden tek fetch'i bekler.
+   */
+  public MarketSnapshot getSnapshot() {
+    MarketSnapshot current = cache;
+    if (current.isEmpty()) {
+      cacheMiss.increment();
+      awaitRefresh();
+      return cache;
+    }
+    if (isStale(Instant.now())) {
+      cacheStale.increment();
+      refreshAsync();
+    } else {
+      cacheHit.increment();
     }
+    return current;
+  }
+
+  public List<CoinDto> getPiyasa() {
+    return getSnapshot().coins();
+  }
+
+  /**
+   * Tek bir satır için tam sinyal analizi; metin sadece burada, istek gelince üretilir.
+   */
+  static TechnicalIndicators.SignalResult explain(MarketTable t, int row) {
+    return TechnicalIndicators.generateSignal(
+        t.rsi[row],
+        new double[]{0, 0, t.macdHistogram[row]},
+        t.trendScore[row],
+        t.volumeMultiplier[row],
+        t.change24h[row]
+    );
+  }
+
+  /** Eldeki snapshot; bloklamaz, refresh tetiklemez. */
+  public MarketSnapshot peekSnapshot() {
+    return cache;
+  }
+
+  @Scheduled(initialDelay = 0, fixedDelayString = "${kriptobot.coins.cache-ttl:PT15M}")
+  void scheduledRefresh() {
+    refreshAsync();
   }
 
-  private List<CoinDto> fetchTopCoins() {
+  private boolean isStale(Instant now) {
+    return Duration.between(lastFetch, now).compareTo(cacheTtl) >= 0;
+  }
+
+  private void awaitRefresh() {
     try {
-      String url = "https://api.coingecko.com/api/v3/coins/markets" +
-          "?vs_currency=usd" +
-          "&order=market_cap_desc" +
-          "&per_page=250" +
-          "&page=1" +
-          "&sparkline=false" +
-          "&price_change_percentage=1h,24h,7d,30d";
-
-      System.out.println("API: " + url);
-
-      HttpRequest req = HttpRequest.newBuilder()
-          .uri(URI.create(url))
-          .timeout(Duration.ofSeconds(30))
-          .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-          .header("Accept", "application/json")
-          .GET()
-          .build();
-
-      HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
-      
-      System.out.println("Response: " + res.statusCode());
-      
-      if (res.statusCode() == 429) {
-        System.err.println("RATE LIMIT");
-        return List.of();
-      }
-      
-      if (res.statusCode() != 200) {
-        System.err.println("HTTP " + res.statusCode());
-        System.err.println("Body: " + res.body().substring(0, Math.min(500, res.body().length())));
-        return List.of();
+      CompletableFuture.anyOf(refreshAsync(), firstPublish).get(COLD_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      System.err.println("Cold cache: refresh still running after " + COLD_WAIT.toSeconds() + "s");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      System.err.println("Cold cache refresh failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Devam eden bir fetch varsa onu döner, yoksa yenisini başlatır.
+   * Başarısız denemeden sonra RETRY_BACKOFF dolana kadar yeni fetch açmaz.
+   */
+  CompletableFuture<Void> refreshAsync() {
+    CompletableFuture<Void> running = inFlight.get();
+    if (running != null) {
+      return running;
+    }
+    if (Instant.now().isBefore(nextAttempt)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    CompletableFuture<Void> mine = new CompletableFuture<>();
+    if (!inFlight.compareAndSet(null, mine)) {
+      CompletableFuture<Void> winner = inFlight.get();
+      return winner != null ? winner : CompletableFuture.completedFuture(null);
+    }
+
+    refresher.execute(() -> {
+      try {
+        refresh();
+      } finally {
+        inFlight.set(null);
+        mine.complete(null);
       }
+    });
+    return mine;
+  }
 
-      JsonNode root = om.readTree(res.body());
-      List<CoinDto> results = new ArrayList<>();
-
-      for (JsonNode coin : root) {
-        try {
-          String symbol = coin.path("symbol").asText().toUpperCase();
-          
-          BigDecimal price = bd(coin.get("current_price"));
-          if (price.compareTo(BigDecimal.ZERO) == 0) continue;
-          
-          BigDecimal change1h = bd(coin.get("price_change_percentage_1h_in_currency"));
-          BigDecimal change24h = bd(coin.get("price_change_percentage_24h"));
-          BigDecimal change7d = bd(coin.get("price_change_percentage_7d_in_currency"));
-          BigDecimal change30d = bd(coin.get("price_change_percentage_30d_in_currency"));
-
-          int trendScore = TechnicalIndicators.analyzeTrend(
-              change1h.doubleValue(),
-              change24h.doubleValue(),
-              change7d.doubleValue(),
-              change30d.doubleValue()
-          );
-          
-          double estimatedRSI = 50 + change24h.doubleValue();
-          estimatedRSI = Math.max(10, Math.min(90, estimatedRSI));
-          
-          double macdEst = change24h.doubleValue() > 0 ? 0.5 : -0.5;
-          
-          TechnicalIndicators.SignalResult signal = TechnicalIndicators.generateSignal(
-              estimatedRSI,
-              new double[]{macdEst, 0, macdEst},
-              trendScore,
-              1.0,
-              change24h.doubleValue()
-          );
-
-          results.add(new CoinDto(
-              symbol + " / USDT",
-              "LIVE",
-              fmtMoney(price),
-              fmtPct(change24h),
-              String.valueOf(signal.confidence),
-              signal.signal,
-              signal.color
-          ));
-          
-        } catch (Exception e) {
-          System.err.println("Error parsing coin: " + e.getMessage());
-        }
+  /**
+   * CoinGecko'yu refresh SLA'sı kadar bekler. Devre açıksa, fetch hata verirse veya SLA aşılırsa
+   * Binance ticker'larından kurulan tablo (regime FALLBACK) yayınlanır; CoinGecko sonradan gelirse
+   * FETCH_TIMEOUT'a kadar beklenip LIVE tablo onun üzerine yayınlanır.
+   */
+  private void refresh() {
+    Instant now = Instant.now();
+    long start = System.nanoTime();
+    boolean fellBack = false;
+    MarketTable table = null;
+    CompletableFuture<MarketTable> primary = null;
+
+    if (fetcher.isAvailable()) {
+      primary = fetcher.fetchAll();
+      table = await(primary, refreshSla);
+    } else {
+      System.err.println("CoinGecko circuit open, skipping fetch");
+    }
+
+    if (table == null) {
+      MarketTable fallback = tickers.marketFallback(cache.table(), fetcher.expectedCoins(), FALLBACK_MAX_AGE);
+      if (fallback != null && publish(score(fallback, now, "FALLBACK"), "FALLBACK")) {
+        System.err.println("Serving Binance fallback (" + fallback.size() + " coins)");
+        fellBack = true;
+        refreshCandles(fallback, now);
       }
+      if (primary != null && !primary.isDone()) {
+        table = await(primary, FETCH_TIMEOUT.minus(refreshSla));
+      }
+    }
+
+    if (table == null || table.size() == 0) {
+      nextAttempt = now.plus(RETRY_BACKOFF);
+      System.err.println("Failed to fetch, using old cache (" + cache.coins().size() + " coins)");
+      (fellBack ? refreshFallback : refreshFailed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return;
+    }
+
+    // Önce eldeki (en fazla bir mum TTL'i eski) indikatörlerle yayınla, mumlar arkadan gelsin
+    if (publish(score(table, now, "LIVE"), "LIVE")) {
+      lastFetch = now;
+    }
+    refreshLive.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    refreshCandles(table, now);
+  }
+
+  private void refreshCandles(MarketTable table, Instant now) {
+    if (candles.isDue(now)) {
+      candles.refresh(table.symbols())
+          .thenRun(() -> refresher.execute(this::rescoreWithCandles));
+    }
+  }
 
-      System.out.println("Parsed " + results.size() + " coins");
-      return results;
+  /**
+   * Yeni mum indikatörleri geldiğinde son tabloyu gerçek RSI/MACD ile yeniden puanlar.
+   * refresher thread'inde çalışır, market refresh'iyle yarışmaz.
+   */
+  private void rescoreWithCandles() {
+    MarketSnapshot current = cache;
+    if (current.isEmpty()) return;
+    String source = regime;
+    publish(score(current.table().copy(), current.fetchedAt(), source), source);
+  }
 
+  private boolean publish(MarketSnapshot next, String source) {
+    if (next == null || next.isEmpty()) return false;
+    MarketSnapshot previous = cache;
+    cache = next;
+    regime = source;
+    firstPublish.complete(null);
+    events.publishEvent(new MarketRefreshedEvent(previous, next));
+    return true;
+  }
+
+  /**
+   * Future'ı en fazla {@code wait} kadar bekler; hata veya zaman aşımında null döner, future'ı iptal etmez.
+   */
+  private static MarketTable await(CompletableFuture<MarketTable> future, Duration wait) {
+    try {
+      return future.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (TimeoutException e) {
+      System.err.println("CoinGecko fetch still running after " + wait.toSeconds() + "s");
+      return null;
     } catch (Exception e) {
-      System.err.println("Exception: " + e.getMessage());
-      e.printStackTrace();
-      return List.of();
+      System.err.println("CoinGecko fetch failed: " + e.getMessage());
+      return null;
     }
   }
 
-  private static BigDecimal bd(JsonNode n) {
-    if (n == null || n.isNull()) return BigDecimal.ZERO;
+  /**
+   * Tablodaki her coin için sinyal girdilerini doldurur, sonra tüm tabloyu tek geçişte puanlar.
+   * Mumu olan coinlerde gerçek RSI / MACD / hacim, olmayanlarda 24h değişimden tahmin kullanılır.
+   */
+  private MarketSnapshot score(MarketTable table, Instant fetchedAt, String regime) {
+    long start = System.nanoTime();
     try {
-      if (n.isTextual()) {
-        return new BigDecimal(n.asText());
+      for (int i = 0; i < table.size(); i++) {
+        double change24h = table.change24h[i];
+
+        CandleIndicators real = candles.indicators(table.symbol[i]);
+        if (real != null) {
+          table.rsi[i] = real.rsi();
+          table.macdHistogram[i] = real.macdHistogramPct();
+          table.volumeMultiplier[i] = real.volumeMultiplier();
+          table.candleBacked[i] = true;
+        } else {
+          double estimatedRSI = 50 + change24h;
+          table.rsi[i] = Math.max(10, Math.min(90, estimatedRSI));
+          table.macdHistogram[i] = change24h > 0 ? 0.5 : -0.5;
+          table.volumeMultiplier[i] = 1.0;
+          table.candleBacked[i] = false;
+        }
       }
-      return BigDecimal.valueOf(n.asDouble());
+
+      // Trend + sinyal skorları kolonlar üzerinde, dallanmasız tek döngüde.
+      // Metin analizi burada üretilmez; sadece /api/coin/{symbol} isteyince (CoinDetailService)
+      BatchSignalScorer.score(table);
+
+      return snapshot(table, fetchedAt, regime);
+
     } catch (Exception e) {
-      return BigDecimal.ZERO;
+      scoreFailures.increment();
+      System.err.println("Scoring " + regime + " table failed: " + e);
+      return null;
+    } finally {
+      signalTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Puanlanmış tablodan legacy DTO listesini ve snapshot'ı kurar (satır başına bir DTO, aynı sırada).
+   */
+  private MarketSnapshot snapshot(MarketTable table, Instant fetchedAt, String regime) throws Exception {
+    return snapshot(table, fetchedAt, regime, FxRates.USD, "USDT");
+  }
+
+  private MarketSnapshot snapshot(MarketTable table, Instant fetchedAt, String regime,
+                                  String currency, String quoteLabel) throws Exception {
+    List<CoinDto> results = new ArrayList<>(table.size());
+    for (int i = 0; i < table.size(); i++) {
+      long signal = table.signal[i];
+      SignalCode code = TechnicalIndicators.packedSignal(signal);
+
+      results.add(new CoinDto(
+          table.symbol[i] + " / " + quoteLabel,
+          regime,
+          FastDecimal.money(table.price[i]),
+          FastDecimal.pct(table.change24h[i]),
+          String.valueOf(TechnicalIndicators.packedConfidence(signal)),
+          code.label,
+          code.color
+      ));
+    }
+    return MarketSnapshot.of(table, results, fetchedAt, "STALE".equals(regime), currency, om);
+  }
+
+  /**
+   * USD snapshot'ın başka para birimindeki görünümü: fiyat / market cap / hacim {@code usdRate} ile çarpılır,
+   * sinyaller ve sıralama aynen kalır. Upstream'e gitmez.
+   */
+  MarketSnapshot convert(MarketSnapshot base, String currency, double usdRate) throws Exception {
+    MarketTable table = base.table().copy();
+    for (int i = 0; i < table.size(); i++) {
+      table.price[i] *= usdRate;
+      table.marketCap[i] *= usdRate;
+      table.volume[i] *= usdRate;
     }
+    String regime = base.coins().isEmpty() ? "LIVE" : base.coins().get(0).regime;
+    return snapshot(table, base.fetchedAt(), regime, currency, currency.toUpperCase(Locale.ROOT));
   }
 
-  private static String fmtMoney(BigDecimal v) {
+  // Referans (BigDecimal) formatlayıcılar; hot path FastDecimal kullanır, çıktısı bunlarla birebir aynı
+  static String fmtMoney(BigDecimal v) {
     if (v == null || v.compareTo(BigDecimal.ZERO) == 0) return "0";
     
     if (v.compareTo(BigDecimal.valueOf(1000)) >= 0) {
@@ -171,7 +412,7 @@ public class CoinService {
     }
   }
 
-  private static String fmtPct(BigDecimal v) {
+  static String fmtPct(BigDecimal v) {
     if (v == null) return "0";
     return v.setScale(2, RoundingMode.HALF_UP).toPlainString();
   }
@@ -0,0 +1,72 @@
+package com.example.kriptobot;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * USD market snapshot'ının diğer para birimlerindeki görünümleri.
+ * - Tek USD fetch'i; görünüm ilk istendiğinde bellekte türetilir ({@link CoinService#convert}), kendi
+ *   hazır JSON / gzip / ETag / indeksiyle saklanır
+ * - Taban snapshot veya kur değişene kadar aynı görünüm döner; aynı anda gelen istekler tek dönüşümü bekler
+ * - Görünüm sayısı desteklenen para birimi sayısıyla sınırlı; yeni snapshot'ta hepsi bırakılır
+ */
+@Service
+public class CurrencyViews {
+
+    private final CoinService coinService;
+    private final FxRates fx;
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    public CurrencyViews(CoinService coinService, FxRates fx) {
+        this.coinService = coinService;
+        this.fx = fx;
+    }
+
+    /**
+     * @param currency desteklenen, küçük harf para birimi kodu
+     * @return kur henüz bilinmiyorsa null
+     */
+    public MarketSnapshot snapshot(String currency) {
+        MarketSnapshot base = coinService.getSnapshot();
+        if (FxRates.USD.equals(currency) || base.isEmpty()) return base;
+        Double rate = fx.usdTo(currency);
+        if (rate == null) return null;
+
+        View v = views.get(currency);
+        if (v != null && v.matches(base, rate)) return v.snapshot;
+        return views.compute(currency, (k, current) ->
+                current != null && current.matches(base, rate) ? current : build(base, k, rate)).snapshot;
+    }
+
+    /** Desteklenen para birimleri ve 1 USD karşılıkları; kuru henüz olmayanlar null. */
+    public Map<String, Double> rates() {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (String c : fx.currencies()) {
+            out.put(c, fx.usdTo(c));
+        }
+        return out;
+    }
+
+    @EventListener
+    void onMarketRefreshed(MarketRefreshedEvent event) {
+        views.clear();
+    }
+
+    private View build(MarketSnapshot base, String currency, double rate) {
+        try {
+            return new View(base, rate, coinService.convert(base, currency, rate));
+        } catch (Exception e) {
+            throw new IllegalStateException("Currency view " + currency + " failed", e);
+        }
+    }
+
+    private record View(MarketSnapshot base, double rate, MarketSnapshot snapshot) {
+        boolean matches(MarketSnapshot base, double rate) {
+            return this.base == base && this.rate == rate;
+        }
+    }
+}
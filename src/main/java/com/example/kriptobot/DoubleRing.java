@@ -0,0 +1,69 @@
+package com.example.kriptobot;
+
+/**
+ * Sabit kapasiteli double ring buffer. Boxing yok; dolunca en eski değerin üzerine yazar.
+ */
+public final class DoubleRing {
+
+    private final double[] values;
+    private int head;   // bir sonraki yazılacak indeks
+    private int size;
+
+    public DoubleRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.values = new double[capacity];
+    }
+
+    public void push(double value) {
+        values[head] = value;
+        head = (head + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    /**
+     * {@code back} kadar geriden değer: 0 = en son eklenen.
+     */
+    public double get(int back) {
+        if (back < 0 || back >= size) {
+            throw new IndexOutOfBoundsException(back);
+        }
+        int idx = head - 1 - back;
+        return values[idx < 0 ? idx + values.length : idx];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Son eklenen hariç, önceki {@code count} değerin ortalaması (eldeki kadar).
+     */
+    public double meanBeforeLatest(int count) {
+        int n = Math.min(count, size - 1);
+        if (n <= 0) return 0;
+        double sum = 0;
+        for (int back = n; back >= 1; back--) {
+            sum += get(back);
+        }
+        return sum / n;
+    }
+
+    /**
+     * Eskiden yeniye sıralı kopya; batch fonksiyonlarla karşılaştırma için.
+     */
+    public double[] toArray() {
+        double[] out = new double[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = get(size - 1 - i);
+        }
+        return out;
+    }
+}
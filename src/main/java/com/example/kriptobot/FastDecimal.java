@@ -0,0 +1,72 @@
+package com.example.kriptobot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * {@code BigDecimal.valueOf(v).setScale(scale, HALF_UP).toPlainString()} ile aynı çıktıyı
+ * BigDecimal üretmeden yazan formatter (legacy String görünümü için).
+ *
+ * Değer ölçeklenip long'a yuvarlanır; yuvarlama sınırına (.5) çok yakın veya çok büyük
+ * değerlerde binary hata sonucu değiştirebileceği için BigDecimal yoluna düşer.
+ */
+public final class FastDecimal {
+
+    // Ölçeklenmiş değer bu sınırın altındayken çarpma hatası < 1e-6
+    private static final double FAST_LIMIT = 1e9;
+    private static final double HALF_MARGIN = 1e-6;
+    private static final double[] POW10 = {1, 10, 100, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+
+    private FastDecimal() {
+    }
+
+    /** CoinService.fmtMoney karşılığı: büyüklüğe göre 2 / 4 / 6 / 8 hane. */
+    public static String money(double v) {
+        if (v == 0) return "0";
+        return format(v, moneyScale(v));
+    }
+
+    /** fmtMoney'nin hane sayısı. */
+    public static int moneyScale(double v) {
+        return v >= 1000 ? 2 : v >= 1 ? 4 : v >= 0.01 ? 6 : 8;
+    }
+
+    /** CoinService.fmtPct karşılığı: 2 hane. */
+    public static String pct(double v) {
+        return format(v, 2);
+    }
+
+    public static String format(double v, int scale) {
+        StringBuilder sb = new StringBuilder(24);
+        appendTo(sb, v, scale);
+        return sb.toString();
+    }
+
+    /**
+     * Sonucu verilen builder'a ekler; hızlı yolda builder dışında allocation yok.
+     */
+    public static void appendTo(StringBuilder sb, double v, int scale) {
+        double x = Math.abs(v) * POW10[scale];
+        double floor = Math.floor(x);
+        double frac = x - floor;
+        if (!(x < FAST_LIMIT) || Math.abs(frac - 0.5) < HALF_MARGIN) {
+            sb.append(BigDecimal.valueOf(v).setScale(scale, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+
+        long units = (long) floor + (frac > 0.5 ? 1 : 0);
+        // BigDecimal'de negatif sıfır yok: -0.001 -> "0.00"
+        if (v < 0 && units != 0) sb.append('-');
+
+        long p = (long) POW10[scale];
+        sb.append(units / p);
+        if (scale > 0) {
+            sb.append('.');
+            long fraction = units % p;
+            for (long d = p / 10; d > fraction && d > 1; d /= 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+    }
+}
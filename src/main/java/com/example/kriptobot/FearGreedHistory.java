@@ -0,0 +1,165 @@
+package com.example.kriptobot;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Günlük Fear &amp; Greed serisi ve 7/30/90 günlük kayan istatistikler.
+ * - Seri bir kez tamamen doldurulur (backfill), sonra sadece yeni günler eklenir
+ * - Değer 0-100 tam sayı: her pencere 101 kutulu bir histogram + toplam tutar.
+ *   Yeni nokta bir kutuyu artırır, pencereden çıkan nokta azaltır (amortize O(1));
+ *   min/max/yüzdelikler seriyi değil sabit 101 kutuyu okur
+ * - İstatistikler ekleme anında bir kez hesaplanır; okuma hazır nesneyi döner
+ */
+public final class FearGreedHistory {
+
+    static final int[] WINDOW_DAYS = {7, 30, 90};
+    private static final long DAY_SECONDS = 86_400;
+
+    /**
+     * @param rank son değerin penceredeki yüzdelik sırası: değeri son değere eşit veya küçük noktaların oranı (%)
+     */
+    public record Stats(int days, int count, double mean, int min, int max, int p10, int median, int p90,
+                        double rank) {
+    }
+
+    /** Eskiden yeniye; t epoch saniye. */
+    public record Series(long[] t, int[] value) {
+    }
+
+    private long[] time = new long[512];
+    private int[] value = new int[512];
+    private int size;
+    private final Window[] windows = new Window[WINDOW_DAYS.length];
+    private volatile Map<String, Stats> stats = Map.of();
+
+    FearGreedHistory() {
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window(WINDOW_DAYS[i]);
+        }
+    }
+
+    /**
+     * Eskiden yeniye noktalar. Son noktadan eski olanlar atlanır; aynı gün (aynı timestamp) güncellenir.
+     *
+     * @return seri değiştiyse true
+     */
+    synchronized boolean append(long[] timestamps, int[] values) {
+        boolean changed = false;
+        for (int i = 0; i < timestamps.length; i++) {
+            changed |= add(timestamps[i], Math.max(0, Math.min(100, values[i])));
+        }
+        if (changed) {
+            Map<String, Stats> next = new LinkedHashMap<>();
+            for (Window w : windows) {
+                next.put(w.days + "d", w.stats(value[size - 1]));
+            }
+            stats = next;
+        }
+        return changed;
+    }
+
+    /** Pencere adı ("7d", "30d", "90d") -&gt; istatistik; seri boşsa boş map. */
+    public Map<String, Stats> stats() {
+        return stats;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Son noktanın timestamp'i (epoch saniye); seri boşsa -1. */
+    public synchronized long lastTimestamp() {
+        return size == 0 ? -1 : time[size - 1];
+    }
+
+    /** {@code fromSeconds} ve sonrası; başlangıç ikili aramayla bulunur. */
+    public synchronized Series since(long fromSeconds) {
+        int from = Arrays.binarySearch(time, 0, size, fromSeconds);
+        if (from < 0) from = -from - 1;
+        return new Series(Arrays.copyOfRange(time, from, size), Arrays.copyOfRange(value, from, size));
+    }
+
+    private boolean add(long timestamp, int v) {
+        if (size > 0 && timestamp < time[size - 1]) return false;
+        if (size > 0 && timestamp == time[size - 1]) {
+            int old = value[size - 1];
+            if (old == v) return false;
+            value[size - 1] = v;
+            for (Window w : windows) {
+                w.remove(old);
+                w.add(v);
+            }
+            return true;
+        }
+        if (size == time.length) {
+            time = Arrays.copyOf(time, size * 2);
+            value = Arrays.copyOf(value, size * 2);
+        }
+        time[size] = timestamp;
+        value[size] = v;
+        size++;
+        for (Window w : windows) {
+            w.add(v);
+            w.evict(timestamp);
+        }
+        return true;
+    }
+
+    private final class Window {
+        final int days;
+        final long span;
+        final int[] counts = new int[101];
+        int count;
+        long sum;
+        int tail; // penceredeki en eski noktanın indeksi
+
+        Window(int days) {
+            this.days = days;
+            this.span = days * DAY_SECONDS;
+        }
+
+        void add(int v) {
+            counts[v]++;
+            count++;
+            sum += v;
+        }
+
+        void remove(int v) {
+            counts[v]--;
+            count--;
+            sum -= v;
+        }
+
+        // Pencere: (latest - span, latest]; günlük seride 7d = son 7 nokta
+        void evict(long latest) {
+            while (tail < size && time[tail] <= latest - span) {
+                remove(value[tail++]);
+            }
+        }
+
+        Stats stats(int latest) {
+            if (count == 0) return new Stats(days, 0, Double.NaN, 0, 0, 0, 0, 0, Double.NaN);
+            int min = 0;
+            while (counts[min] == 0) min++;
+            int max = 100;
+            while (counts[max] == 0) max--;
+            int atOrBelow = 0;
+            for (int v = 0; v <= latest; v++) atOrBelow += counts[v];
+            return new Stats(days, count, (double) sum / count, min, max,
+                    percentile(0.10), percentile(0.50), percentile(0.90), 100.0 * atOrBelow / count);
+        }
+
+        // Nearest-rank: sıralı dizide ceil(p * n). eleman
+        private int percentile(double p) {
+            int rank = Math.max(1, (int) Math.ceil(p * count));
+            int seen = 0;
+            for (int v = 0; v <= 100; v++) {
+                seen += counts[v];
+                if (seen >= rank) return v;
+            }
+            return 100;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.kriptobot;
+
+/**
+ * Fear &amp; Greed değeri değiştiğinde atılır.
+ */
+public record FearGreedRefreshedEvent(FearGreedService.FearGreedData data) {
+}
@@ -2,42 +2,129 @@ package com.example.kriptobot;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * alternative.me Fear &amp; Greed: son değer (10 dk cache) ve günlük geçmiş.
+ * Geçmiş modunda ilk fetch tüm seriyi çeker (limit=0); sonrakiler sadece eksik günleri (normalde limit=1).
+ * Seri {@link WarmStartStore}'a yazılır; yeniden başlatmada diskten yüklenir, backfill tekrarlanmaz.
+ * Fetch'ler single-flight: cache miss'teki istek ile schedule aynı anda gelirse tek istek gider.
+ */
 @Service
 public class FearGreedService {
 
     private static final Duration CACHE_TTL = Duration.ofMinutes(10); // 10 dakika cache
-    private static final String API_URL = "https://api.alternative.me/fng/?limit=1";
 
     private final ObjectMapper om = new ObjectMapper();
-    private final HttpClient http = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
+
+    private final UpstreamClient upstream;
+    private final ApplicationEventPublisher events;
+    private final WarmStartStore warmStart;
+    private final String apiUrl;
+    private final FearGreedHistory history;
+    private final Counter cacheHit;
+    private final Counter cacheMiss;
 
     private volatile Instant lastFetch = Instant.EPOCH;
     private volatile FearGreedData cache = null;
+    // Devam eden fetch; sonradan gelen çağıran onun sonucunu bekler (seri boşken iki tam backfill açılmaz)
+    private final AtomicReference<CompletableFuture<FearGreedData>> inFlight = new AtomicReference<>();
+
+    public FearGreedService(UpstreamClient upstream, ApplicationEventPublisher events, WarmStartStore warmStart,
+                            MeterRegistry metrics,
+                            @Value("${kriptobot.fear-greed.base-url:https://api.alternative.me}") String baseUrl,
+                            @Value("${kriptobot.fear-greed.history.enabled:true}") boolean historyEnabled) {
+        this.upstream = upstream;
+        this.events = events;
+        this.warmStart = warmStart;
+        this.apiUrl = baseUrl + "/fng/?limit=";
+        this.history = historyEnabled ? new FearGreedHistory() : null;
+
+        this.cacheHit = Counter.builder("kriptobot.feargreed.cache.requests").tag("result", "hit").register(metrics);
+        this.cacheMiss = Counter.builder("kriptobot.feargreed.cache.requests").tag("result", "miss").register(metrics);
+        // Son başarılı fetch'ten bu yana; hiç fetch yoksa NaN
+        Gauge.builder("kriptobot.feargreed.cache.age", this,
+                        s -> s.lastFetch == Instant.EPOCH ? Double.NaN
+                                : Duration.between(s.lastFetch, Instant.now()).toMillis() / 1000.0)
+                .baseUnit("seconds").register(metrics);
+        if (history != null) {
+            Gauge.builder("kriptobot.feargreed.history.size", history, FearGreedHistory::size).register(metrics);
+        }
+    }
+
+    /**
+     * Diskteki son değer; ilk canlı fetch'e kadar stale=true ile servis edilir.
+     * Diskteki seri geçmişe yüklenir; ilk fetch sadece aradaki günleri ister.
+     */
+    @PostConstruct
+    void restore() {
+        WarmStartStore.Loaded loaded = warmStart.load();
+        if (loaded == null) return;
+        if (loaded.fearGreed() != null) {
+            loaded.fearGreed().stale = true;
+            cache = loaded.fearGreed();
+        }
+        if (history != null && loaded.fearGreedHistory() != null) {
+            history.append(loaded.fearGreedHistory().t(), loaded.fearGreedHistory().value());
+        }
+    }
+
+    /**
+     * Sayfa açık olmasa da değer tazelensin ve stream'e push edilsin diye.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "PT10M")
+    void scheduledRefresh() {
+        fetch();
+    }
+
+    /** Günlük seri ve kayan istatistikler; geçmiş modu kapalıysa null. */
+    public FearGreedHistory history() {
+        return history;
+    }
+
+    /** Cache'teki son değer; upstream'e gitmez, hiç veri yoksa null. */
+    public FearGreedData peekFearGreed() {
+        return cache;
+    }
 
     public FearGreedData getFearGreed() {
         Instant now = Instant.now();
         
         // Cache varsa ve fresh ise direkt dön
         if (cache != null && Duration.between(lastFetch, now).compareTo(CACHE_TTL) < 0) {
+            cacheHit.increment();
+            return cache;
+        }
+
+        // Açılışta diskten gelen değer: canlı değeri schedule getirir, isteği bekletme
+        if (cache != null && cache.stale && lastFetch == Instant.EPOCH) {
+            cacheHit.increment();
             return cache;
         }
+        cacheMiss.increment();
 
         // Yeni veri çek
-        FearGreedData data = fetchFromApi();
+        FearGreedData data = fetch();
         if (data != null) {
-            cache = data;
-            lastFetch = now;
             return data;
         }
 
@@ -45,34 +132,62 @@ public class FearGreedService {
         return cache != null ? cache : getDefaultData();
     }
 
+    /**
+     * Devam eden fetch varsa onun sonucunu bekler, yoksa fetch edip cache'i günceller.
+     *
+     * @return yeni değer; upstream başarısızsa null
+     */
+    private FearGreedData fetch() {
+        CompletableFuture<FearGreedData> mine = new CompletableFuture<>();
+        CompletableFuture<FearGreedData> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            FearGreedData data = fetchFromApi();
+            if (data != null) {
+                update(data, Instant.now());
+            }
+            mine.complete(data);
+            return data;
+        } finally {
+            inFlight.set(null);
+            mine.complete(null);
+        }
+    }
+
+    private void update(FearGreedData data, Instant now) {
+        FearGreedData previous = cache;
+        cache = data;
+        lastFetch = now;
+        if (previous == null || previous.value != data.value || previous.timestamp != data.timestamp) {
+            events.publishEvent(new FearGreedRefreshedEvent(data));
+        }
+    }
+
     private FearGreedData fetchFromApi() {
         try {
-            HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .timeout(Duration.ofSeconds(15))
-                    .header("User-Agent", "Mozilla/5.0")
-                    .GET()
-                    .build();
-
-            HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
-            
+            HttpRequest req = UpstreamClient.get(apiUrl + limit(), Duration.ofSeconds(15));
+            HttpResponse<InputStream> res = upstream.send(UpstreamClient.Provider.ALTERNATIVE_ME, req).get();
+
+            String body;
+            try (InputStream in = res.body()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
             if (res.statusCode() != 200) {
                 System.err.println("Fear & Greed API HTTP " + res.statusCode());
                 return null;
             }
 
-            JsonNode root = om.readTree(res.body());
-            JsonNode data = root.path("data").get(0);
-            
-            if (data == null) return null;
-
-            int value = data.path("value").asInt(50);
-            String classification = data.path("value_classification").asText("Neutral");
-            long timestamp = data.path("timestamp").asLong(System.currentTimeMillis() / 1000);
-
-            System.out.println("Fear & Greed SUCCESS: " + value + " (" + classification + ")");
-            
-            return new FearGreedData(value, classification, timestamp);
+            List<FearGreedData> all = parseAll(om, body);
+            if (all.isEmpty()) return null;
+            FearGreedData parsed = all.get(0);
+            if (history != null && appendHistory(all)) {
+                warmStart.saveFearGreedHistory(history.since(Long.MIN_VALUE));
+            }
+            System.out.println("Fear & Greed SUCCESS: " + parsed.value + " (" + parsed.classification + ")"
+                    + (all.size() > 1 ? ", " + all.size() + " days" : ""));
+            return parsed;
 
         } catch (Exception e) {
             System.err.println("Fear & Greed ERROR: " + e.getMessage());
@@ -80,26 +195,82 @@ public class FearGreedService {
         }
     }
 
+    // Seri boşsa tamamı (0), değilse son noktadan bu yana eksik gün sayısı kadar
+    private int limit() {
+        if (history == null) return 1;
+        long last = history.lastTimestamp();
+        if (last < 0) return 0;
+        long missingDays = (System.currentTimeMillis() / 1000 - last) / 86_400;
+        return (int) Math.max(1, Math.min(missingDays + 1, 1000));
+    }
+
+    // API yeniden eskiye döner; seri eskiden yeniye eklenir. Seri değiştiyse true
+    private boolean appendHistory(List<FearGreedData> newestFirst) {
+        int n = newestFirst.size();
+        long[] t = new long[n];
+        int[] v = new int[n];
+        for (int i = 0; i < n; i++) {
+            FearGreedData d = newestFirst.get(n - 1 - i);
+            t[i] = d.timestamp;
+            v[i] = d.value;
+        }
+        return history.append(t, v);
+    }
+
+    /**
+     * alternative.me cevabındaki ilk (en güncel) kayıt; yoksa null.
+     */
+    static FearGreedData parse(ObjectMapper om, String body) throws IOException {
+        List<FearGreedData> all = parseAll(om, body);
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    /** Cevaptaki tüm kayıtlar, API sırasıyla (yeniden eskiye). */
+    static List<FearGreedData> parseAll(ObjectMapper om, String body) throws IOException {
+        JsonNode data = om.readTree(body).path("data");
+        List<FearGreedData> out = new ArrayList<>(data.size());
+        for (JsonNode d : data) {
+            int value = d.path("value").asInt(50);
+            String classification = d.path("value_classification").asText("Neutral");
+            long timestamp = d.path("timestamp").asLong(System.currentTimeMillis() / 1000);
+            out.add(new FearGreedData(value, classification, timestamp));
+        }
+        return out;
+    }
+
     private FearGreedData getDefaultData() {
         return new FearGreedData(50, "Neutral", System.currentTimeMillis() / 1000);
     }
 
     public static class FearGreedData {
+        // Değer başına hazır metin/renk; backfill binlerce nokta oluşturur
+        private static final String[] SENTIMENT = new String[101];
+        private static final String[] COLOR = new String[101];
+
+        static {
+            for (int v = 0; v <= 100; v++) {
+                SENTIMENT[v] = getSentiment(v);
+                COLOR[v] = getColor(v);
+            }
+        }
+
         public int value;           // 0-100
         public String classification; // Extreme Fear, Fear, Neutral, Greed, Extreme Greed
         public long timestamp;
         public String sentiment;     // Emoji ve açıklama
         public String color;         // Renk kodu
+        public boolean stale;        // Warm start'tan geldi, henüz canlı değil
 
         public FearGreedData(int value, String classification, long timestamp) {
             this.value = value;
             this.classification = classification;
             this.timestamp = timestamp;
-            this.sentiment = getSentiment(value);
-            this.color = getColor(value);
+            int v = Math.max(0, Math.min(100, value));
+            this.sentiment = SENTIMENT[v];
+            this.color = COLOR[v];
         }
 
-        private String getSentiment(int val) {
+        private static String getSentiment(int val) {
             if (val <= 25) return "😱 Aşırı Korku - Alım Fırsatı!";
             if (val <= 45) return "😰 Korku - Dikkatli Alım";
             if (val <= 55) return "😐 Nötr - Bekle & Gör";
@@ -107,7 +278,7 @@ public class FearGreedService {
             return "🤑 Aşırı Açgözlülük - Balon Riski!";
         }
 
-        private String getColor(int val) {
+        private static String getColor(int val) {
             if (val <= 25) return "#ff4d4f";      // Kırmızı
             if (val <= 45) return "#ff9800";      // Turuncu
             if (val <= 55) return "#95a5a6";      // Gri
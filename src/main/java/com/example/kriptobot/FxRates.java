@@ -0,0 +1,121 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 1 USD'nin desteklenen para birimlerindeki karşılığı.
+ * - Kaynak CoinGecko /exchange_rates (tek istek, BTC bazlı oranlar); saatte bir yenilenir
+ * - CoinGecko'dan oran yoksa Binance ticker'ından türetilir (USDTTRY, EURUSDT gibi)
+ * - Sadece {@code kriptobot.fx.currencies} listesindekiler; görünüm sayısı böylece sınırlı kalır
+ */
+@Component
+public class FxRates {
+
+    public static final String USD = "usd";
+
+    private final ObjectMapper om = new ObjectMapper();
+    private final UpstreamClient upstream;
+    private final BinanceTickerCache tickers;
+    private final HttpRequest request;
+    private final List<String> currencies;
+
+    private volatile Map<String, Double> usdRates = Map.of(USD, 1.0);
+
+    public FxRates(
+            UpstreamClient upstream,
+            BinanceTickerCache tickers,
+            @Value("${kriptobot.coingecko.base-url:https://api.coingecko.com/api/v3}") String baseUrl,
+            @Value("${kriptobot.fx.currencies:usd,try,eur}") String currencies) {
+        this.upstream = upstream;
+        this.tickers = tickers;
+        this.request = UpstreamClient.get(baseUrl + "/exchange_rates", Duration.ofSeconds(15));
+        this.currencies = Arrays.stream(currencies.split(","))
+                .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                .filter(c -> !c.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    public List<String> currencies() {
+        return currencies;
+    }
+
+    public boolean supports(String currency) {
+        return currencies.contains(currency);
+    }
+
+    /**
+     * @param currency küçük harf ISO kodu (ör. "try")
+     * @return 1 USD kaç birim; oran henüz yoksa null
+     */
+    public Double usdTo(String currency) {
+        Double rate = usdRates.get(currency);
+        return rate != null ? rate : fromBinance(currency);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${kriptobot.fx.refresh:PT1H}")
+    void refresh() {
+        try {
+            HttpResponse<InputStream> res = upstream.send(UpstreamClient.Provider.COINGECKO, request).get();
+            JsonNode root;
+            try (InputStream body = res.body()) {
+                if (res.statusCode() != 200) {
+                    System.err.println("FX rates HTTP " + res.statusCode());
+                    return;
+                }
+                root = om.readTree(body);
+            }
+            Map<String, Double> next = parse(root, currencies);
+            if (next != null) {
+                usdRates = next;
+                System.out.println("FX rates: " + next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("FX rates ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {"rates": {"usd": {"value": 67000}, "try": {"value": 2150000}, ...}} (1 BTC karşılıkları)
+     * -> 1 USD karşılıkları. USD oranı yoksa null.
+     */
+    static Map<String, Double> parse(JsonNode root, List<String> currencies) {
+        JsonNode rates = root.path("rates");
+        double usd = rates.path(USD).path("value").asDouble(0);
+        if (usd <= 0) return null;
+
+        Map<String, Double> out = new HashMap<>();
+        for (String c : currencies) {
+            double v = rates.path(c).path("value").asDouble(0);
+            if (v > 0) out.put(c, v / usd);
+        }
+        out.put(USD, 1.0);
+        return Map.copyOf(out);
+    }
+
+    // USDT ~ USD kabulüyle: USDT<KOD> (1 USDT = x KOD) veya <KOD>USDT (1 KOD = x USDT)
+    private Double fromBinance(String currency) {
+        String code = currency.toUpperCase(Locale.ROOT);
+        BinanceTickerCache.Ticker direct = tickers.get("USDT" + code);
+        if (direct != null && direct.lastPrice() > 0) return direct.lastPrice();
+        BinanceTickerCache.Ticker inverse = tickers.get(code + "USDT");
+        if (inverse != null && inverse.lastPrice() > 0) return 1 / inverse.lastPrice();
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.kriptobot;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Varsayılan sink: bildirimi log'a yazar.
+ */
+@Component
+public class LogAlertSink implements AlertSink {
+
+    @Override
+    public void deliver(AlertEngine.Notification n) {
+        AlertEngine.Alert a = n.alert();
+        System.out.println("ALERT #" + a.id() + " " + a.type() + " " + (a.symbol() != null ? a.symbol() + " " : "")
+                + (a.signal() != null ? a.signal().label : a.threshold()) + ": " + n.from() + " -> " + n.to());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.kriptobot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * /api/piyasa için kompakt binary format ({@value #MEDIA_TYPE}), little-endian:
+ *
+ * <pre>
+ * header   : magic "KMKT" (4) | version u16 | flags u16 (bit0 = stale) | fetchedAt ms i64 | count u32
+ *            | currency (len u8 + ASCII, ör. "usd")   -- price kolonunun para birimi
+ * symbols  : count x (len u8 + UTF-8 bytes)      -- satır sırasıyla sembol sözlüğü
+ * price    : count x f64
+ * change24h: count x f32
+ * confidence: count x u8
+ * signal   : count x u8                           -- SignalCode ordinal; renk/etiket istemcide enum'dan
+ * </pre>
+ *
+ * Sayısal kolonlar sabit genişlikte olduğu için decoder ofset hesaplayıp tek geçişte okur.
+ * Sürüm 2: currency alanı eklendi (?currency=try gövdesi USD'den ayırt edilebilsin diye).
+ */
+public final class MarketBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-kriptobot-market";
+
+    static final int MAGIC = 0x544B4D4B; // "KMKT" little-endian
+    static final int VERSION = 2;
+    private static final int HEADER = 4 + 2 + 2 + 8 + 4;
+
+    private MarketBinaryCodec() {
+    }
+
+    /**
+     * @param currency price kolonunun para birimi (FxRates kodu, ör. "usd")
+     */
+    public static byte[] encode(MarketTable t, Instant fetchedAt, boolean stale, String currency) {
+        int n = t.size();
+        byte[] cur = currency.getBytes(StandardCharsets.US_ASCII);
+        if (cur.length > 255) cur = Arrays.copyOf(cur, 255);
+        byte[][] symbols = new byte[n][];
+        int dictBytes = 0;
+        for (int i = 0; i < n; i++) {
+            byte[] s = t.symbol[i].getBytes(StandardCharsets.UTF_8);
+            symbols[i] = s.length > 255 ? Arrays.copyOf(s, 255) : s;
+            dictBytes += 1 + symbols[i].length;
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(HEADER + 1 + cur.length + dictBytes + n * (8 + 4 + 1 + 1))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC);
+        b.putShort((short) VERSION);
+        b.putShort((short) (stale ? 1 : 0));
+        b.putLong(fetchedAt.toEpochMilli());
+        b.putInt(n);
+        b.put((byte) cur.length).put(cur);
+        for (byte[] s : symbols) {
+            b.put((byte) s.length).put(s);
+        }
+        for (int i = 0; i < n; i++) b.putDouble(t.price[i]);
+        for (int i = 0; i < n; i++) b.putFloat((float) t.change24h[i]);
+        for (int i = 0; i < n; i++) b.put((byte) TechnicalIndicators.packedConfidence(t.signal[i]));
+        for (int i = 0; i < n; i++) b.put((byte) TechnicalIndicators.packedSignal(t.signal[i]).ordinal());
+        return b.array();
+    }
+
+    /**
+     * Referans decoder (Java istemcileri ve testler için).
+     *
+     * @throws IllegalArgumentException magic / versiyon tutmazsa
+     */
+    public static Decoded decode(byte[] data) {
+        ByteBuffer b = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (b.getInt() != MAGIC) throw new IllegalArgumentException("Not a market snapshot");
+        int version = b.getShort() & 0xFFFF;
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported version " + version);
+        boolean stale = (b.getShort() & 1) != 0;
+        long fetchedAt = b.getLong();
+        int n = b.getInt();
+        int curLen = b.get() & 0xFF;
+        String currency = new String(data, b.position(), curLen, StandardCharsets.US_ASCII);
+        b.position(b.position() + curLen);
+
+        String[] symbol = new String[n];
+        for (int i = 0; i < n; i++) {
+            int len = b.get() & 0xFF;
+            symbol[i] = new String(data, b.position(), len, StandardCharsets.UTF_8);
+            b.position(b.position() + len);
+        }
+        double[] price = new double[n];
+        b.asDoubleBuffer().get(price);
+        b.position(b.position() + n * 8);
+        float[] change24h = new float[n];
+        b.asFloatBuffer().get(change24h);
+        b.position(b.position() + n * 4);
+        byte[] confidence = new byte[n];
+        b.get(confidence);
+        byte[] signal = new byte[n];
+        b.get(signal);
+        return new Decoded(Instant.ofEpochMilli(fetchedAt), stale, currency, symbol, price, change24h, confidence, signal);
+    }
+
+    /**
+     * Decode edilmiş snapshot, kolon bazlı. confidence 0-100, signal {@link SignalCode} ordinal.
+     *
+     * @param currency price kolonunun para birimi (ör. "usd", "try")
+     */
+    public record Decoded(Instant fetchedAt, boolean stale, String currency, String[] symbol, double[] price,
+                          float[] change24h, byte[] confidence, byte[] signal) {
+
+        public int size() {
+            return symbol.length;
+        }
+
+        public SignalCode signal(int row) {
+            return SignalCode.ofOrdinal(signal[row]);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.kriptobot;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Snapshot başına bir kere kurulan sorgu indeksi: her sıralama anahtarı için satır permütasyonu,
+ * sembol prefix araması için sembole göre sıralı permütasyon ve satır başına hazır JSON.
+ *
+ * Bir sorgu = permütasyonu gezip filtreleri uygulamak + sayfadaki satırların byte'larını birleştirmek;
+ * DTO kopyalanmaz, yeniden serialize edilmez.
+ */
+public final class MarketIndex {
+
+    public enum Sort {
+        MARKET_CAP, PRICE, CHANGE, CONFIDENCE, SCORE, SYMBOL
+    }
+
+    private final MarketTable table;
+    private final byte[][] rowJson;
+    // [sort][0] artan, [sort][1] azalan; eşit anahtarlarda ikisinde de market cap sırası korunur
+    private final int[][][] bySort = new int[Sort.values().length][2][];
+    private final int[] bySymbol;
+    private final String[] sortedSymbols;
+
+    MarketIndex(MarketTable table, byte[][] rowJson) {
+        this.table = table;
+        this.rowJson = rowJson;
+        int n = table.size();
+
+        index(Sort.MARKET_CAP, n, Comparator.comparingDouble(i -> table.marketCap[i]));
+        index(Sort.PRICE, n, Comparator.comparingDouble(i -> table.price[i]));
+        index(Sort.CHANGE, n, Comparator.comparingDouble(i -> table.change24h[i]));
+        index(Sort.CONFIDENCE, n, Comparator.comparingInt(i -> TechnicalIndicators.packedConfidence(table.signal[i])));
+        index(Sort.SCORE, n, Comparator.comparingInt(i -> TechnicalIndicators.packedScore(table.signal[i])));
+        index(Sort.SYMBOL, n, Comparator.comparing(i -> table.symbol[i]));
+
+        bySymbol = bySort[Sort.SYMBOL.ordinal()][0];
+        sortedSymbols = new String[n];
+        for (int k = 0; k < n; k++) {
+            sortedSymbols[k] = table.symbol[bySymbol[k]];
+        }
+    }
+
+    /**
+     * Filtre + sıralama + sayfa. {@code signals} null ise tüm sinyaller; {@code prefix} büyük/küçük harf duyarsız.
+     */
+    public Page query(Sort sort, boolean descending, Set<SignalCode> signals, int minConfidence,
+                      String prefix, int offset, int limit) {
+        int[] order = bySort[sort.ordinal()][descending ? 1 : 0];
+        int n = order.length;
+
+        BitSet prefixRows = null;
+        if (prefix != null && !prefix.isEmpty()) {
+            String p = prefix.toUpperCase(Locale.ROOT);
+            int from = lowerBound(p);
+            int to = lowerBound(p + Character.MAX_VALUE);
+            prefixRows = new BitSet(table.size());
+            for (int k = from; k < to; k++) {
+                prefixRows.set(bySymbol[k]);
+            }
+            if (prefixRows.isEmpty()) {
+                return new Page(0, new byte[]{'[', ']'});
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(limit, 256) * 160 + 2);
+        out.write('[');
+        int total = 0;
+        int written = 0;
+
+        // Filtre yoksa sayfa doğrudan permütasyon dilimi
+        if (signals == null && minConfidence <= 0 && prefixRows == null) {
+            for (int k = offset; k < n && written < limit; k++) {
+                if (written > 0) out.write(',');
+                out.writeBytes(rowJson[order[k]]);
+                written++;
+            }
+            out.write(']');
+            return new Page(n, out.toByteArray());
+        }
+
+        for (int k = 0; k < n; k++) {
+            int row = order[k];
+            long packed = table.signal[row];
+            if (signals != null && !signals.contains(TechnicalIndicators.packedSignal(packed))) continue;
+            if (TechnicalIndicators.packedConfidence(packed) < minConfidence) continue;
+            if (prefixRows != null && !prefixRows.get(row)) continue;
+
+            if (total >= offset && written < limit) {
+                if (written > 0) out.write(',');
+                out.writeBytes(rowJson[row]);
+                written++;
+            }
+            total++;
+        }
+        out.write(']');
+        return new Page(total, out.toByteArray());
+    }
+
+    private int lowerBound(String key) {
+        int i = Arrays.binarySearch(sortedSymbols, key);
+        return i >= 0 ? firstEqual(i) : -i - 1;
+    }
+
+    // binarySearch eşit elemanlardan herhangi birini dönebilir
+    private int firstEqual(int i) {
+        while (i > 0 && sortedSymbols[i - 1].equals(sortedSymbols[i])) i--;
+        return i;
+    }
+
+    // Stream sort stabil: eşit anahtarlarda tablo (market cap) sırası korunur
+    private void index(Sort sort, int n, Comparator<Integer> key) {
+        bySort[sort.ordinal()][0] = IntStream.range(0, n).boxed().sorted(key).mapToInt(Integer::intValue).toArray();
+        bySort[sort.ordinal()][1] = IntStream.range(0, n).boxed().sorted(key.reversed()).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Sayfanın JSON dizisi ve filtreye uyan toplam satır sayısı.
+     */
+    public record Page(int total, byte[] json) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * CoinGecko /coins/markets cevabını Jackson streaming API ile okur.
+ * JsonNode ağacı ve BigDecimal kurmadan, kullanılan alanları doğrudan
+ * {@link MarketTable} kolonlarına double olarak yazar.
+ */
+public final class MarketJsonParser {
+
+    private final JsonFactory factory;
+
+    public MarketJsonParser(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Body'deki coin dizisini tabloya ekler. Fiyatı olmayan (0/null) coinler atlanır.
+     *
+     * @return eklenen satır sayısı
+     */
+    public int parseInto(InputStream body, MarketTable table) throws IOException {
+        int added = 0;
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected JSON array, got " + p.currentToken());
+            }
+
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String symbol = null;
+                double price = 0, marketCap = 0, volume = 0;
+                double change1h = 0, change24h = 0, change7d = 0, change30d = 0;
+
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    // Jackson alan adlarını canonicalize eder, burada String üretilmez
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    switch (field) {
+                        case "id" -> id = value == JsonToken.VALUE_STRING ? p.getText() : null;
+                        case "symbol" -> symbol = value == JsonToken.VALUE_STRING ? p.getText() : null;
+                        case "current_price" -> price = number(p, value);
+                        case "market_cap" -> marketCap = number(p, value);
+                        case "total_volume" -> volume = number(p, value);
+                        case "price_change_percentage_1h_in_currency" -> change1h = number(p, value);
+                        case "price_change_percentage_24h" -> change24h = number(p, value);
+                        case "price_change_percentage_7d_in_currency" -> change7d = number(p, value);
+                        case "price_change_percentage_30d_in_currency" -> change30d = number(p, value);
+                        default -> p.skipChildren();
+                    }
+                }
+
+                if (symbol == null || price == 0) continue;
+
+                int row = table.addRow();
+                table.id[row] = id != null ? id : symbol;
+                table.symbol[row] = symbol.toUpperCase(Locale.ROOT);
+                table.price[row] = price;
+                table.marketCap[row] = marketCap;
+                table.volume[row] = volume;
+                table.change1h[row] = change1h;
+                table.change24h[row] = change24h;
+                table.change7d[row] = change7d;
+                table.change30d[row] = change30d;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static double number(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_NUMBER_INT || t == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getDoubleValue();
+        }
+        if (t == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(p.getText());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.kriptobot;
+
+/**
+ * CoinService yeni bir snapshot yayınladığında atılır.
+ */
+public record MarketRefreshedEvent(MarketSnapshot previous, MarketSnapshot current) {
+}
@@ -0,0 +1,171 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bir refresh'in değişmez sonucu: ham tablo, legacy DTO listesi ve
+ * /api/piyasa için önceden hazırlanmış JSON/gzip/ETag.
+ */
+public final class MarketSnapshot {
+
+    // v2 "signal" kodlarının karşılığı, ordinal sırasıyla
+    private static final List<Map<String, String>> SIGNAL_LEGEND = Arrays.stream(SignalCode.values())
+            .map(c -> Map.of("label", c.label, "color", c.color))
+            .toList();
+
+    public static final MarketSnapshot EMPTY = new MarketSnapshot(
+            new MarketTable(0), List.of(), Instant.EPOCH,
+            PreparedJson.of("[]".getBytes(StandardCharsets.UTF_8)), emptyV2(),
+            PreparedJson.of(MarketBinaryCodec.encode(new MarketTable(0), Instant.EPOCH, false, FxRates.USD)),
+            new byte[0][]);
+
+    private final MarketTable table;
+    private final List<CoinDto> coins;
+    private final Instant fetchedAt;
+    private final PreparedJson body;
+    private final PreparedJson bodyV2;
+    private final PreparedJson bodyBinary;
+    private final Map<String, Integer> rowBySymbol;
+    private final MarketIndex index;
+
+    private MarketSnapshot(MarketTable table, List<CoinDto> coins, Instant fetchedAt, PreparedJson body,
+                           PreparedJson bodyV2, PreparedJson bodyBinary, byte[][] rowJson) {
+        this.table = table;
+        this.coins = coins;
+        this.fetchedAt = fetchedAt;
+        this.body = body;
+        this.bodyV2 = bodyV2;
+        this.bodyBinary = bodyBinary;
+        this.index = new MarketIndex(table, rowJson);
+
+        // Aynı sembolü taşıyan birden fazla coin varsa market cap'i büyük olan (ilk gelen) kazanır
+        Map<String, Integer> index = new HashMap<>(table.size() * 2);
+        for (int i = 0; i < table.size(); i++) {
+            index.putIfAbsent(table.symbol[i], i);
+        }
+        this.rowBySymbol = index;
+    }
+
+    /**
+     * coins.get(i) tablonun i. satırına karşılık gelmeli. Satırlar bir kere serialize edilir;
+     * tam liste ve sorgu sayfaları aynı byte'lardan birleştirilir.
+     */
+    public static MarketSnapshot of(MarketTable table, List<CoinDto> coins, Instant fetchedAt,
+                                    ObjectMapper om) throws JsonProcessingException {
+        return of(table, coins, fetchedAt, false, om);
+    }
+
+    public static MarketSnapshot of(MarketTable table, List<CoinDto> coins, Instant fetchedAt, boolean stale,
+                                    ObjectMapper om) throws JsonProcessingException {
+        return of(table, coins, fetchedAt, stale, FxRates.USD, om);
+    }
+
+    /**
+     * @param currency tablodaki fiyatların para birimi; v2 ve binary gövdelerinde "currency" olarak döner
+     */
+    public static MarketSnapshot of(MarketTable table, List<CoinDto> coins, Instant fetchedAt, boolean stale,
+                                    String currency, ObjectMapper om) throws JsonProcessingException {
+        if (coins.size() != table.size()) {
+            throw new IllegalArgumentException("coins (" + coins.size() + ") must match table rows (" + table.size() + ")");
+        }
+        List<CoinDto> frozen = List.copyOf(coins);
+        byte[][] rowJson = new byte[frozen.size()][];
+        ByteArrayOutputStream all = new ByteArrayOutputStream(frozen.size() * 160 + 2);
+        all.write('[');
+        for (int i = 0; i < rowJson.length; i++) {
+            rowJson[i] = om.writeValueAsBytes(frozen.get(i));
+            if (i > 0) all.write(',');
+            all.writeBytes(rowJson[i]);
+        }
+        all.write(']');
+        return new MarketSnapshot(table, frozen, fetchedAt, PreparedJson.of(all.toByteArray()),
+                PreparedJson.of(om.writeValueAsBytes(v2(table, fetchedAt, stale, currency))),
+                PreparedJson.of(MarketBinaryCodec.encode(table, fetchedAt, stale, currency)), rowJson);
+    }
+
+    private static PreparedJson emptyV2() {
+        try {
+            return PreparedJson.of(new ObjectMapper().writeValueAsBytes(v2(new MarketTable(0), Instant.EPOCH, false, FxRates.USD)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * v2 gövdesi doğrudan tablo kolonlarından: String formatlama ve BigDecimal yok.
+     */
+    private static Map<String, Object> v2(MarketTable table, Instant fetchedAt, boolean stale, String currency) {
+        CoinDtoV2[] rows = new CoinDtoV2[table.size()];
+        for (int i = 0; i < rows.length; i++) {
+            long signal = table.signal[i];
+            rows[i] = new CoinDtoV2(table.symbol[i], table.price[i], table.change24h[i],
+                    TechnicalIndicators.packedConfidence(signal),
+                    TechnicalIndicators.packedSignal(signal).ordinal());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("fetchedAt", fetchedAt.toEpochMilli());
+        body.put("stale", stale);
+        body.put("currency", currency);
+        body.put("signals", SIGNAL_LEGEND);
+        body.put("coins", rows);
+        return body;
+    }
+
+    public MarketTable table() {
+        return table;
+    }
+
+    public List<CoinDto> coins() {
+        return coins;
+    }
+
+    public Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    public PreparedJson body() {
+        return body;
+    }
+
+    /**
+     * /api/v2/piyasa gövdesi.
+     */
+    public PreparedJson bodyV2() {
+        return bodyV2;
+    }
+
+    /**
+     * {@link MarketBinaryCodec} formatındaki gövde (Accept: {@value MarketBinaryCodec#MEDIA_TYPE}).
+     */
+    public PreparedJson bodyBinary() {
+        return bodyBinary;
+    }
+
+    /** Filtre / sıralama / sayfalama için hazır indeks. */
+    public MarketIndex index() {
+        return index;
+    }
+
+    /**
+     * Sembolün tablo satırı (büyük/küçük harf duyarsız), yoksa -1.
+     */
+    public int row(String symbol) {
+        Integer row = rowBySymbol.get(symbol.toUpperCase(Locale.ROOT));
+        return row == null ? -1 : row;
+    }
+
+    public boolean isEmpty() {
+        return coins.isEmpty();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * /api/stream için Server-Sent Events yayıncısı.
+ * - Bağlanan istemciye bir kez tam snapshot gider, sonra sadece fiyatı/sinyali değişen coinler (delta)
+ * - Her event bir kez serialize edilir, tüm istemcilere aynı byte'lar gider
+ * - İstemci başına sınırlı kuyruk; kuyruğu dolan (yavaş) istemci düşürülür
+ */
+@Service
+public class MarketStreamService {
+
+    public enum Topic { MARKET, FEAR_GREED }
+
+    private static final int CLIENT_BUFFER = 8;
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+
+    private final CoinService coinService;
+    private final FearGreedService fearGreedService;
+    private final ObjectMapper om;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    // İstemci başına tek drain görevi (draining bayrağı); yavaş soket yazımı virtual thread'i bekletir, diğerlerini değil
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-sender-", 0).factory());
+
+    // Son snapshot'ın tam hali; yeni bağlanan her istemci için tekrar string'e çevrilmesin
+    private volatile SnapshotEvent lastSnapshotEvent;
+
+    public MarketStreamService(CoinService coinService, FearGreedService fearGreedService, ObjectMapper om) {
+        this.coinService = coinService;
+        this.fearGreedService = fearGreedService;
+        this.om = om;
+    }
+
+    public SseEmitter subscribe(Set<Topic> topics) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Client client = new Client(emitter, topics.isEmpty() ? EnumSet.allOf(Topic.class) : EnumSet.copyOf(topics));
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+
+        if (client.topics.contains(Topic.MARKET)) {
+            MarketSnapshot snapshot = coinService.peekSnapshot();
+            if (snapshot.isEmpty()) {
+                // Veri gelince delta olarak (önceki = boş) tamamı gönderilecek
+                coinService.refreshAsync();
+            } else {
+                client.offer(snapshotEvent(snapshot));
+            }
+        }
+        if (client.topics.contains(Topic.FEAR_GREED)) {
+            FearGreedService.FearGreedData fg = fearGreedService.peekFearGreed();
+            if (fg != null) {
+                client.offer(fearGreedEvent(fg));
+            }
+        }
+        return emitter;
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    @EventListener
+    public void onMarketRefreshed(MarketRefreshedEvent event) {
+        if (clients.isEmpty()) return;
+        Map<String, Object> delta = delta(event.previous(), event.current());
+        if (delta == null) return;
+        broadcast(Topic.MARKET, build("delta", delta));
+    }
+
+    @EventListener
+    public void onFearGreedRefreshed(FearGreedRefreshedEvent event) {
+        if (clients.isEmpty()) return;
+        broadcast(Topic.FEAR_GREED, fearGreedEvent(event.data()));
+    }
+
+    /** Proxy'lerin bağlantıyı kesmemesi ve kopan istemcilerin temizlenmesi için. */
+    @Scheduled(fixedDelayString = "PT25S")
+    void heartbeat() {
+        if (clients.isEmpty()) return;
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (Client c : clients) {
+            c.offer(ping);
+        }
+    }
+
+    private void broadcast(Topic topic, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (Client c : clients) {
+            if (c.topics.contains(topic)) {
+                c.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Fiyatı, sinyali veya regime'i (STALE -> LIVE) değişen ya da yeni gelen coinler + listeden düşenler.
+     * Hiçbir şey değişmediyse null.
+     */
+    private static Map<String, Object> delta(MarketSnapshot previous, MarketSnapshot current) {
+        Map<String, CoinDto> before = new HashMap<>(previous.coins().size() * 2);
+        for (CoinDto c : previous.coins()) {
+            before.put(c.symbol, c);
+        }
+
+        List<CoinDto> changed = new ArrayList<>();
+        for (CoinDto c : current.coins()) {
+            CoinDto old = before.remove(c.symbol);
+            if (old == null || !Objects.equals(old.price, c.price) || !Objects.equals(old.signal, c.signal)
+                    || !Objects.equals(old.regime, c.regime)) {
+                changed.add(c);
+            }
+        }
+        if (changed.isEmpty() && before.isEmpty()) return null;
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("ts", current.fetchedAt().toEpochMilli());
+        delta.put("changed", changed);
+        delta.put("removed", before.keySet());
+        return delta;
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> snapshotEvent(MarketSnapshot snapshot) {
+        SnapshotEvent cached = lastSnapshotEvent;
+        if (cached == null || cached.snapshot != snapshot) {
+            String json = new String(snapshot.body().json(), StandardCharsets.UTF_8);
+            cached = new SnapshotEvent(snapshot, SseEmitter.event().name("snapshot").data(json, MediaType.APPLICATION_JSON).build());
+            lastSnapshotEvent = cached;
+        }
+        return cached.event;
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> fearGreedEvent(FearGreedService.FearGreedData data) {
+        return build("fear-greed", data);
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> build(String name, Object payload) {
+        try {
+            return SseEmitter.event().name(name).data(om.writeValueAsString(payload), MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("SSE payload serialize edilemedi: " + name, e);
+        }
+    }
+
+    private record SnapshotEvent(MarketSnapshot snapshot, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    }
+
+    private final class Client {
+        final SseEmitter emitter;
+        final EnumSet<Topic> topics;
+        final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayBlockingQueue<>(CLIENT_BUFFER);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Client(SseEmitter emitter, EnumSet<Topic> topics) {
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!queue.offer(event)) {
+                // Yavaş tüketici: kuyruğu büyütmek yerine bağlantıyı kes, EventSource yeniden bağlanır
+                drop();
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                clients.remove(this);
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && clients.contains(this)) {
+                schedule();
+            }
+        }
+
+        void drop() {
+            if (clients.remove(this)) {
+                queue.clear();
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.kriptobot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Piyasa geneli özet: yükselen/düşen sayısı, sinyal dağılımı, market cap ağırlıklı 24h değişim,
+ * en çok yükselen/düşen coinler. Tablo üzerinden tek geçişte hesaplanır; top-K listeleri
+ * K boyutlu heap'lerde tutulur (sıralama yok).
+ *
+ * @param advancers            24h değişimi bilinmeyen (NaN) coinler yükselen/düşen/değişmeyen sayılarına girmez
+ * @param capWeightedChange24h market cap ağırlıklı 24h değişim (%); cap'i olmayan coinler hariç
+ * @param signals              sinyal etiketi -&gt; coin sayısı, STRONG BUY'dan STRONG SELL'e
+ * @param topGainers           sadece yükselenler (change &gt; 0), K'dan az olabilir; topLosers sadece düşenler
+ */
+public record MarketSummary(long fetchedAt, int coins, int advancers, int decliners, int unchanged,
+                            double totalMarketCap, double totalVolume, double capWeightedChange24h,
+                            Map<String, Integer> signals, Mover[] topGainers, Mover[] topLosers) {
+
+    public record Mover(String symbol, double price, double change24h, String signal) {
+    }
+
+    static MarketSummary of(MarketSnapshot snapshot, int topK) {
+        MarketTable t = snapshot.table();
+        int advancers = 0, decliners = 0, unchanged = 0;
+        double totalCap = 0, totalVolume = 0, weightedChange = 0, weightedCap = 0;
+        int[] bySignal = new int[SignalCode.values().length];
+        TopK gainers = new TopK(topK);
+        TopK losers = new TopK(topK);
+
+        for (int i = 0; i < t.size; i++) {
+            double change = t.change24h[i];
+            double cap = t.marketCap[i];
+            if (change > 0) advancers++;
+            else if (change < 0) decliners++;
+            else if (change == 0) unchanged++;
+            if (cap > 0) {
+                totalCap += cap;
+                if (!Double.isNaN(change)) {
+                    weightedChange += cap * change;
+                    weightedCap += cap;
+                }
+            }
+            if (t.volume[i] > 0) totalVolume += t.volume[i];
+            bySignal[TechnicalIndicators.packedSignal(t.signal[i]).ordinal()]++;
+            if (change > 0) gainers.offer(i, change);
+            else if (change < 0) losers.offer(i, -change);
+        }
+
+        Map<String, Integer> signals = new LinkedHashMap<>();
+        for (SignalCode c : SignalCode.values()) {
+            signals.put(c.label, bySignal[c.ordinal()]);
+        }
+        return new MarketSummary(snapshot.fetchedAt().toEpochMilli(), t.size, advancers, decliners, unchanged,
+                totalCap, totalVolume, weightedCap > 0 ? weightedChange / weightedCap : 0,
+                signals, movers(t, gainers.drainDescending()), movers(t, losers.drainDescending()));
+    }
+
+    private static Mover[] movers(MarketTable t, int[] rows) {
+        Mover[] out = new Mover[rows.length];
+        for (int k = 0; k < rows.length; k++) {
+            int i = rows[k];
+            out[k] = new Mover(t.symbol[i], t.price[i], t.change24h[i],
+                    TechnicalIndicators.packedSignal(t.signal[i]).label);
+        }
+        return out;
+    }
+
+    /**
+     * En büyük K anahtarı tutan primitive min-heap: kök en küçük; dolunca sadece kökten büyük gelen girer.
+     * n satır için O(n log K).
+     */
+    private static final class TopK {
+        private final int[] rows;
+        private final double[] keys;
+        private int size;
+
+        TopK(int k) {
+            rows = new int[Math.max(0, k)];
+            keys = new double[rows.length];
+        }
+
+        void offer(int row, double key) {
+            if (size < rows.length) {
+                rows[size] = row;
+                keys[size] = key;
+                siftUp(size++);
+            } else if (size > 0 && key > keys[0]) {
+                rows[0] = row;
+                keys[0] = key;
+                siftDown(0);
+            }
+        }
+
+        /** Büyükten küçüğe satırlar; heap boşalır. */
+        int[] drainDescending() {
+            int[] out = new int[size];
+            for (int k = out.length - 1; k >= 0; k--) {
+                out[k] = rows[0];
+                size--;
+                rows[0] = rows[size];
+                keys[0] = keys[size];
+                siftDown(0);
+            }
+            return out;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= keys[i]) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) return;
+                int smallest = left + 1 < size && keys[left + 1] < keys[left] ? left + 1 : left;
+                if (keys[i] <= keys[smallest]) return;
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int r = rows[a];
+            rows[a] = rows[b];
+            rows[b] = r;
+            double k = keys[a];
+            keys[a] = keys[b];
+            keys[b] = k;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * /api/market/summary: her yeni snapshot'ta bir kez hesaplanan {@link MarketSummary},
+ * JSON/gzip/ETag hazır halde. İstek sadece hazır byte'ları döner.
+ */
+@Service
+public class MarketSummaryService {
+
+    private final CoinService coinService;
+    private final ObjectMapper om;
+    private final int topK;
+
+    private volatile Prepared current;
+
+    public MarketSummaryService(CoinService coinService, ObjectMapper om,
+                                @Value("${kriptobot.summary.top:10}") int topK) {
+        this.coinService = coinService;
+        this.om = om;
+        this.topK = topK;
+    }
+
+    public PreparedJson summary() {
+        MarketSnapshot snapshot = coinService.getSnapshot();
+        Prepared p = current;
+        if (p != null && p.source == snapshot) return p.body;
+        // Event'ten önce gelen istek (açılış) veya event'i kaçıran snapshot
+        return prepare(snapshot).body;
+    }
+
+    @EventListener
+    void onMarketRefreshed(MarketRefreshedEvent event) {
+        prepare(event.current());
+    }
+
+    private synchronized Prepared prepare(MarketSnapshot snapshot) {
+        Prepared p = current;
+        if (p != null && p.source == snapshot) return p;
+        try {
+            p = new Prepared(snapshot, PreparedJson.of(om.writeValueAsBytes(MarketSummary.of(snapshot, topK))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        current = p;
+        return p;
+    }
+
+    private record Prepared(MarketSnapshot source, PreparedJson body) {
+    }
+}
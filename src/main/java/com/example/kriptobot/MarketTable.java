@@ -0,0 +1,131 @@
+package com.example.kriptobot;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CoinGecko markets verisinin kolon bazlı (struct-of-arrays) hali.
+ * Her coin bir satır indeksi; sadece kullandığımız alanlar primitive olarak tutulur.
+ * Doldurulduktan sonra sadece okunur, thread'ler arası paylaşılabilir.
+ */
+public final class MarketTable {
+
+    int size;
+    String[] id;
+    String[] symbol;
+    double[] price;
+    double[] marketCap;
+    double[] volume;
+    double[] change1h;
+    double[] change24h;
+    double[] change7d;
+    double[] change30d;
+
+    // Sinyal girdileri: mum varsa gerçek indikatörler, yoksa 24h değişimden tahmin
+    double[] rsi;
+    double[] macdHistogram;     // fiyatın yüzdesi
+    double[] volumeMultiplier;
+    boolean[] candleBacked;
+    int[] trendScore;
+    long[] signal;              // TechnicalIndicators.packSignal çıktısı
+
+    public MarketTable(int capacity) {
+        int cap = Math.max(16, capacity);
+        id = new String[cap];
+        symbol = new String[cap];
+        price = new double[cap];
+        marketCap = new double[cap];
+        volume = new double[cap];
+        change1h = new double[cap];
+        change24h = new double[cap];
+        change7d = new double[cap];
+        change30d = new double[cap];
+        rsi = new double[cap];
+        macdHistogram = new double[cap];
+        volumeMultiplier = new double[cap];
+        candleBacked = new boolean[cap];
+        trendScore = new int[cap];
+        signal = new long[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String symbol(int row) {
+        return symbol[row];
+    }
+
+    public double price(int row) {
+        return price[row];
+    }
+
+    public double change24h(int row) {
+        return change24h[row];
+    }
+
+    /**
+     * Yeni bir satır açar ve indeksini döner; gerekirse kolonları büyütür.
+     */
+    int addRow() {
+        if (size == symbol.length) {
+            int cap = symbol.length * 2;
+            id = Arrays.copyOf(id, cap);
+            symbol = Arrays.copyOf(symbol, cap);
+            price = Arrays.copyOf(price, cap);
+            marketCap = Arrays.copyOf(marketCap, cap);
+            volume = Arrays.copyOf(volume, cap);
+            change1h = Arrays.copyOf(change1h, cap);
+            change24h = Arrays.copyOf(change24h, cap);
+            change7d = Arrays.copyOf(change7d, cap);
+            change30d = Arrays.copyOf(change30d, cap);
+            rsi = Arrays.copyOf(rsi, cap);
+            macdHistogram = Arrays.copyOf(macdHistogram, cap);
+            volumeMultiplier = Arrays.copyOf(volumeMultiplier, cap);
+            candleBacked = Arrays.copyOf(candleBacked, cap);
+            trendScore = Arrays.copyOf(trendScore, cap);
+            signal = Arrays.copyOf(signal, cap);
+        }
+        return size++;
+    }
+
+    /**
+     * Başka bir tablonun satırını bu tablonun sonuna kopyalar.
+     */
+    void copyRowFrom(MarketTable src, int row) {
+        int r = addRow();
+        id[r] = src.id[row];
+        symbol[r] = src.symbol[row];
+        price[r] = src.price[row];
+        marketCap[r] = src.marketCap[row];
+        volume[r] = src.volume[row];
+        change1h[r] = src.change1h[row];
+        change24h[r] = src.change24h[row];
+        change7d[r] = src.change7d[row];
+        change30d[r] = src.change30d[row];
+        rsi[r] = src.rsi[row];
+        macdHistogram[r] = src.macdHistogram[row];
+        volumeMultiplier[r] = src.volumeMultiplier[row];
+        candleBacked[r] = src.candleBacked[row];
+        trendScore[r] = src.trendScore[row];
+        signal[r] = src.signal[row];
+    }
+
+    /**
+     * Tablonun bağımsız kopyası; yayınlanmış bir snapshot'ın tablosuna dokunmadan yeniden puanlamak için.
+     */
+    MarketTable copy() {
+        MarketTable t = new MarketTable(size);
+        for (int i = 0; i < size; i++) {
+            t.copyRowFrom(this, i);
+        }
+        return t;
+    }
+
+    /**
+     * İlk {@code size} sembol, sıra korunarak.
+     */
+    public List<String> symbols() {
+        return Arrays.asList(symbol).subList(0, size);
+    }
+}
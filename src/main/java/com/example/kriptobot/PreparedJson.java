@@ -0,0 +1,62 @@
+package com.example.kriptobot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bir kere serialize edilmiş cevap (JSON veya binary): ham byte'lar, gzip hali ve içerikten türetilmiş ETag.
+ * Veri değişene kadar her istekte aynı byte dizileri kopyalanmadan yazılır.
+ */
+public final class PreparedJson {
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    private PreparedJson(byte[] json, byte[] gzip, String etag) {
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public static PreparedJson of(byte[] json) {
+        return new PreparedJson(json, gzip(json), etag(json));
+    }
+
+    public byte[] json() {
+        return json;
+    }
+
+    public byte[] gzip() {
+        return gzip;
+    }
+
+    /** Tırnaklı, strong ETag (ör. "\"3f2a...\""). */
+    public String etag() {
+        return etag;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
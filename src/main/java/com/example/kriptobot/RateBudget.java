@@ -0,0 +1,96 @@
+package com.example.kriptobot;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Basit token bucket: dakikada {@code perMinute} istek, en fazla {@code burst} tanesi aynı anda.
+ * {@link #reserve()} bloklamaz; izin gelene kadar bekleyen bir future döner.
+ *
+ * Hız adaptif (AIMD): her 429'da yarıya iner ({@link #slowDown()}), başarılı cevaplarla
+ * adım adım tanımlı hıza geri çıkar ({@link #speedUp()}).
+ */
+final class RateBudget {
+
+    // Hız tanımlının 1/8'inin altına inmez; her başarı tanımlı hızın 1/20'si kadar geri kazandırır
+    private static final double MIN_FACTOR = 1.0 / 8;
+    private static final double RECOVERY_STEP = 1.0 / 20;
+
+    private final double basePermitsPerNano;
+    private final double burst;
+
+    private double permitsPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @throws IllegalArgumentException perMinute &lt; 1 (hız 0 olursa reserve() hiç tamamlanmayan bir bekleme kurar)
+     */
+    RateBudget(int perMinute, int burst) {
+        if (perMinute < 1) {
+            throw new IllegalArgumentException("requests-per-minute must be at least 1, got " + perMinute);
+        }
+        this.basePermitsPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.permitsPerNano = basePermitsPerNano;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Bir istek hakkı ayırır; hak hemen yoksa sıradaki token'ın zamanında tamamlanır.
+     */
+    CompletableFuture<Void> reserve() {
+        long delay = reserveDelayNanos();
+        if (delay <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {}, delayed(delay));
+    }
+
+    /**
+     * 429 sonrası: bucket'ı boşaltıp en az {@code pause} kadar yeni istek verilmemesini sağlar.
+     */
+    synchronized void penalize(Duration pause) {
+        refill();
+        double debt = pause.toNanos() * permitsPerNano;
+        tokens = Math.min(tokens, 0) - debt;
+    }
+
+    /** 429 sonrası: dakikalık hızı yarıya indirir. */
+    synchronized void slowDown() {
+        refill();
+        permitsPerNano = Math.max(basePermitsPerNano * MIN_FACTOR, permitsPerNano / 2);
+    }
+
+    /** Başarılı cevap sonrası: hızı tanımlı değere doğru bir adım artırır. */
+    synchronized void speedUp() {
+        if (permitsPerNano >= basePermitsPerNano) return;
+        refill();
+        permitsPerNano = Math.min(basePermitsPerNano, permitsPerNano + basePermitsPerNano * RECOVERY_STEP);
+    }
+
+    /** Şu anki dakikalık hız (adaptif). */
+    synchronized double perMinute() {
+        return permitsPerNano * TimeUnit.MINUTES.toNanos(1);
+    }
+
+    static Executor delayed(long nanos) {
+        return CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized long reserveDelayNanos() {
+        refill();
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.kriptobot;
+
+/**
+ * generateSignal'ın beş seviyesi; hot path'te String yerine ordinal taşınır.
+ */
+public enum SignalCode {
+    STRONG_BUY("STRONG BUY", "#00ff41", "Excellent entry point. Consider buying."),
+    BUY("BUY", "#2ecc71", "Good opportunity. Watch for confirmation."),
+    NEUTRAL("NEUTRAL", "#95a5a6", "Wait and observe. No clear signal."),
+    SELL("SELL", "#ff6b6b", "Consider taking profits or reducing position."),
+    STRONG_SELL("STRONG SELL", "#ff0000", "High risk. Consider exiting position.");
+
+    // values() her çağrıda kopya üretir; hot path bunu kullanır
+    private static final SignalCode[] BY_ORDINAL = values();
+
+    public final String label;
+    public final String color;
+    public final String recommendation;
+
+    SignalCode(String label, String color, String recommendation) {
+        this.label = label;
+        this.color = color;
+        this.recommendation = recommendation;
+    }
+
+    public static SignalCode ofOrdinal(int ordinal) {
+        return BY_ORDINAL[ordinal];
+    }
+
+    /**
+     * Skor eşikleri: &gt;=60, &gt;=30, &gt;=-30, &gt;=-60.
+     */
+    public static SignalCode fromScore(int signalScore) {
+        if (signalScore >= 60) return STRONG_BUY;
+        if (signalScore >= 30) return BUY;
+        if (signalScore >= -30) return NEUTRAL;
+        if (signalScore >= -60) return SELL;
+        return STRONG_SELL;
+    }
+
+    /**
+     * Aynı sınıflandırma, backtest için değiştirilebilir skor eşikleriyle.
+     */
+    public static SignalCode fromScore(int signalScore, SignalThresholds t) {
+        if (signalScore >= t.strongBuyScore()) return STRONG_BUY;
+        if (signalScore >= t.buyScore()) return BUY;
+        if (signalScore >= -t.buyScore()) return NEUTRAL;
+        if (signalScore >= -t.strongBuyScore()) return SELL;
+        return STRONG_SELL;
+    }
+
+    /** Etiketten ("STRONG BUY" veya "STRONG_BUY"), bilinmiyorsa null. */
+    public static SignalCode fromLabel(String label) {
+        for (SignalCode c : BY_ORDINAL) {
+            if (c.label.equalsIgnoreCase(label) || c.name().equalsIgnoreCase(label)) return c;
+        }
+        return null;
+    }
+}
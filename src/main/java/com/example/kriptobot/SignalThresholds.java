@@ -0,0 +1,28 @@
+package com.example.kriptobot;
+
+/**
+ * generateSignal'daki eşikler; canlı sistem {@link #DEFAULT} kullanır, backtest farklı kombinasyonları dener.
+ * Satış tarafı simetrik: SELL &lt;= -buy, STRONG SELL &lt;= -strongBuy (skor eşikleri dahil).
+ */
+public record SignalThresholds(
+        double rsiOversold,     // +40
+        double rsiLow,          // +20
+        double rsiHigh,         // -20
+        double rsiOverbought,   // -40
+        double macdStrong,      // ±30, altı ±15
+        int buyScore,
+        int strongBuyScore) {
+
+    public static final SignalThresholds DEFAULT = new SignalThresholds(30, 40, 60, 70, 0.5, 30, 60);
+
+    /** Kısa gösterim, örn. "rsi=30/40/60/70 macd=0.5 score=30/60". */
+    @Override
+    public String toString() {
+        return "rsi=" + fmt(rsiOversold) + "/" + fmt(rsiLow) + "/" + fmt(rsiHigh) + "/" + fmt(rsiOverbought)
+                + " macd=" + fmt(macdStrong) + " score=" + buyScore + "/" + strongBuyScore;
+    }
+
+    private static String fmt(double v) {
+        return v == Math.rint(v) ? String.valueOf((long) v) : String.valueOf(v);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.kriptobot;
+
+/**
+ * Tick başına O(1) güncellenen indikatörler.
+ * Aynı seriyi baştan besleyince {@link TechnicalIndicators}'daki batch versiyonlarla
+ * bire bir aynı sonucu verir (aynı işlem sırası).
+ */
+public final class StreamingIndicators {
+
+    private StreamingIndicators() {
+    }
+
+    /**
+     * EMA; ilk değerle seed edilir.
+     */
+    public static final class Ema {
+        private final double multiplier;
+        private double value;
+        private long count;
+
+        public Ema(int period) {
+            this.multiplier = 2.0 / (period + 1);
+        }
+
+        public double update(double x) {
+            value = count++ == 0 ? x : (x - value) * multiplier + value;
+            return value;
+        }
+
+        public double value() {
+            return value;
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+
+    /**
+     * Wilder RSI. İlk {@code period} değişim basit ortalama ile seed edilir.
+     */
+    public static final class Rsi {
+        private final int period;
+        private double prev;
+        private long changes = -1;   // -1: henüz fiyat yok
+        private double avgGain;
+        private double avgLoss;
+
+        public Rsi(int period) {
+            this.period = period;
+        }
+
+        public double update(double price) {
+            if (changes < 0) {
+                prev = price;
+                changes = 0;
+                return value();
+            }
+
+            double change = price - prev;
+            prev = price;
+            changes++;
+
+            if (changes <= period) {
+                if (change > 0) {
+                    avgGain += change;
+                } else {
+                    avgLoss += Math.abs(change);
+                }
+                if (changes == period) {
+                    avgGain /= period;
+                    avgLoss /= period;
+                }
+            } else {
+                double gain = change > 0 ? change : 0;
+                double loss = change > 0 ? 0 : Math.abs(change);
+                avgGain = (avgGain * (period - 1) + gain) / period;
+                avgLoss = (avgLoss * (period - 1) + loss) / period;
+            }
+            return value();
+        }
+
+        public double value() {
+            if (changes < period) {
+                return 50.0; // Default neutral
+            }
+            return TechnicalIndicators.rsiValue(avgGain, avgLoss);
+        }
+    }
+
+    /**
+     * MACD(12, 26, 9); sinyal hattı MACD hattının gerçek 9 periyot EMA'sı.
+     * 26 fiyattan önce tüm çıktılar 0.
+     */
+    public static final class Macd {
+        private static final int SLOW_PERIOD = 26;
+
+        private final Ema fast = new Ema(12);
+        private final Ema slow = new Ema(SLOW_PERIOD);
+        private final Ema signal = new Ema(9);
+
+        public void update(double price) {
+            fast.update(price);
+            slow.update(price);
+            signal.update(fast.value() - slow.value());
+        }
+
+        public boolean ready() {
+            return slow.count() >= SLOW_PERIOD;
+        }
+
+        public double line() {
+            return ready() ? fast.value() - slow.value() : 0;
+        }
+
+        public double signal() {
+            return ready() ? signal.value() : 0;
+        }
+
+        public double histogram() {
+            return ready() ? (fast.value() - slow.value()) - signal.value() : 0;
+        }
+
+        /**
+         * [line, signal, histogram] değerlerini verilen diziye yazar (allocation yok).
+         */
+        public double[] into(double[] out) {
+            out[0] = line();
+            out[1] = signal();
+            out[2] = histogram();
+            return out;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.kriptobot;
+
+/**
+ * Tek bir sembolün canlı indikatör durumu: her yeni mum/tick ile O(1) güncellenir.
+ * Son kapanış ve hacimler ring buffer'da tutulur; hacim çarpanı sabit pencereli ortalamaya göre.
+ */
+public final class SymbolIndicators {
+
+    public static final int RSI_PERIOD = 14;
+    public static final int VOLUME_WINDOW = 20;
+
+    private final StreamingIndicators.Rsi rsi = new StreamingIndicators.Rsi(RSI_PERIOD);
+    private final StreamingIndicators.Macd macd = new StreamingIndicators.Macd();
+    private final DoubleRing closes;
+    private final DoubleRing volumes = new DoubleRing(VOLUME_WINDOW + 1);
+
+    public SymbolIndicators(int historyCapacity) {
+        this.closes = new DoubleRing(Math.max(1, historyCapacity));
+    }
+
+    public void update(double close, double volume) {
+        closes.push(close);
+        volumes.push(volume);
+        rsi.update(close);
+        macd.update(close);
+    }
+
+    public double rsi() {
+        return rsi.value();
+    }
+
+    public StreamingIndicators.Macd macd() {
+        return macd;
+    }
+
+    /**
+     * Son hacmin önceki {@link #VOLUME_WINDOW} hacmin ortalamasına oranı.
+     */
+    public double volumeMultiplier() {
+        if (volumes.size() < 2) return 1.0;
+        return TechnicalIndicators.analyzeVolume(volumes.get(0), volumes.meanBeforeLatest(VOLUME_WINDOW));
+    }
+
+    public DoubleRing closes() {
+        return closes;
+    }
+
+    public double lastClose() {
+        return closes.size() == 0 ? 0 : closes.get(0);
+    }
+}
@@ -2,19 +2,36 @@ package com.example.kriptobot;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.InputStream;
+import java.net.URLEncoder;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Locale;
 
 @Service
 public class TechnicalAnalysisService {
 
-    private final HttpClient client = HttpClient.newHttpClient();
+    // Bulk ticker bundan eskiyse tek sembol isteğine düşülür
+    private static final Duration MAX_TICKER_AGE = Duration.ofMinutes(5);
+
     private final ObjectMapper mapper = new ObjectMapper();
+    private final UpstreamClient upstream;
+    private final BinanceTickerCache tickers;
+    private final String baseUrl;
+
+    public TechnicalAnalysisService(
+            UpstreamClient upstream,
+            BinanceTickerCache tickers,
+            @Value("${kriptobot.binance.base-url:https://api.binance.com}") String baseUrl) {
+        this.upstream = upstream;
+        this.tickers = tickers;
+        this.baseUrl = baseUrl;
+    }
 
     public static class SignalResult {
         public final String signal;     // BUY / SELL / NEUTRAL
@@ -37,38 +54,53 @@ public class TechnicalAnalysisService {
     /**
      * Basit, rate-limit yemeyen sinyal:
      * - Binance 24h change yüzdesine göre BUY/SELL/NEUTRAL verir.
-     * - TA gibi davranır ama tek istek ile çalışır.
+     * - Önce bellekteki bulk ticker'a bakar (istek yok); sembol yoksa veya
+     *   ticker bayatsa tek sembol isteğine düşer.
      *
      * NOT: Render'da Binance bazen 451 dönebiliyor (bölgesel / WAF).
-     * O durumda CoinService zaten fallback'e düşüyor.
+     * Art arda gelirse UpstreamClient Binance devresini açar ve istek hiç gitmeden NO_DATA döner.
      */
     public SignalResult getSignal(String symbol) {
+        BinanceTickerCache.Ticker t = tickers.get(symbol);
+        if (t != null && t.age().compareTo(MAX_TICKER_AGE) < 0) {
+            return classify(t.priceChangePercent());
+        }
+        return fetchSignal(symbol);
+    }
+
+    private SignalResult fetchSignal(String symbol) {
         try {
             // tek symbol 24h endpoint (az istek)
             String url = String.format(Locale.US,
-                    "https://api.binance.com/api/v3/ticker/24hr?symbol=%s", symbol);
-
-            HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("User-Agent", "Mozilla/5.0")
-                    .build();
+                    "%s/api/v3/ticker/24hr?symbol=%s", baseUrl, URLEncoder.encode(symbol, StandardCharsets.UTF_8));
 
-            HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
+            HttpRequest req = UpstreamClient.get(url, Duration.ofSeconds(10));
+            HttpResponse<InputStream> res = upstream.send(UpstreamClient.Provider.BINANCE, req).get();
 
-            if (res.statusCode() != 200) {
-                return new SignalResult("NEUTRAL", "#474d57", "NO_DATA", 0);
+            JsonNode n;
+            try (InputStream body = res.body()) {
+                if (res.statusCode() != 200) {
+                    return new SignalResult("NEUTRAL", "#474d57", "NO_DATA", 0);
+                }
+                n = mapper.readTree(body);
             }
-
-            JsonNode n = mapper.readTree(res.body());
             double ch = n.path("priceChangePercent").asDouble(0);
+            tickers.put(symbol, ch,
+                    n.path("lastPrice").asDouble(0),
+                    n.path("quoteVolume").asDouble(0),
+                    n.path("closeTime").asLong(0));
 
-            // basit eşikler (istersen değiştirirsin)
-            if (ch >= 2.0) return new SignalResult("BUY", "#1db954", "TREND", 70);
-            if (ch <= -2.0) return new SignalResult("SELL", "#ff4d4d", "TREND", 70);
-            return new SignalResult("NEUTRAL", "#474d57", "RANGE", 50);
+            return classify(ch);
 
         } catch (Exception e) {
             return new SignalResult("NEUTRAL", "#474d57", "NO_DATA", 0);
         }
     }
+
+    private static SignalResult classify(double ch) {
+        // basit eşikler (istersen değiştirirsin)
+        if (ch >= 2.0) return new SignalResult("BUY", "#1db954", "TREND", 70);
+        if (ch <= -2.0) return new SignalResult("SELL", "#ff4d4d", "TREND", 70);
+        return new SignalResult("NEUTRAL", "#474d57", "RANGE", 50);
+    }
 }
@@ -20,7 +20,17 @@ public class TechnicalIndicators {
      * 70-100: Overbought (SELL signal)
      */
     public static double calculateRSI(List<Double> prices, int period) {
-        if (prices == null || prices.size() < period + 1) {
+        return prices == null ? 50.0 : calculateRSI(toArray(prices), period);
+    }
+
+    /**
+     * RSI over a primitive series.
+     * Seeds with the simple average of the first {@code period} changes,
+     * then applies Wilder smoothing over the rest of the series.
+     * {@link StreamingIndicators.Rsi} produces the same value tick by tick.
+     */
+    public static double calculateRSI(double[] prices, int period) {
+        if (prices == null || prices.length < period + 1) {
             return 50.0; // Default neutral
         }
 
@@ -29,7 +39,7 @@ public class TechnicalIndicators {
 
         // Calculate initial average gain/loss
         for (int i = 1; i <= period; i++) {
-            double change = prices.get(i) - prices.get(i - 1);
+            double change = prices[i] - prices[i - 1];
             if (change > 0) {
                 avgGain += change;
             } else {
@@ -40,6 +50,19 @@ public class TechnicalIndicators {
         avgGain /= period;
         avgLoss /= period;
 
+        // Wilder smoothing
+        for (int i = period + 1; i < prices.length; i++) {
+            double change = prices[i] - prices[i - 1];
+            double gain = change > 0 ? change : 0;
+            double loss = change > 0 ? 0 : Math.abs(change);
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+
+        return rsiValue(avgGain, avgLoss);
+    }
+
+    static double rsiValue(double avgGain, double avgLoss) {
         if (avgLoss == 0) {
             return 100.0; // All gains, maximum RSI
         }
@@ -54,15 +77,22 @@ public class TechnicalIndicators {
      * Calculate EMA (Exponential Moving Average)
      */
     public static double calculateEMA(List<Double> prices, int period) {
-        if (prices == null || prices.isEmpty()) {
+        return prices == null ? 0 : calculateEMA(toArray(prices), period);
+    }
+
+    /**
+     * EMA over a primitive series, seeded with the first value.
+     */
+    public static double calculateEMA(double[] prices, int period) {
+        if (prices == null || prices.length == 0) {
             return 0;
         }
 
         double multiplier = 2.0 / (period + 1);
-        double ema = prices.get(0);
+        double ema = prices[0];
 
-        for (int i = 1; i < prices.size(); i++) {
-            ema = (prices.get(i) - ema) * multiplier + ema;
+        for (int i = 1; i < prices.length; i++) {
+            ema = (prices[i] - ema) * multiplier + ema;
         }
 
         return ema;
@@ -75,23 +105,46 @@ public class TechnicalIndicators {
      * Negative histogram = Bearish
      */
     public static double[] calculateMACD(List<Double> prices) {
-        if (prices == null || prices.size() < 26) {
+        return prices == null ? new double[]{0, 0, 0} : calculateMACD(toArray(prices));
+    }
+
+    /**
+     * MACD(12, 26, 9) over a primitive series.
+     * The signal line is a real 9-period EMA of the MACD line, seeded with its first value.
+     */
+    public static double[] calculateMACD(double[] prices) {
+        if (prices == null || prices.length < 26) {
             return new double[]{0, 0, 0};
         }
 
-        double ema12 = calculateEMA(prices, 12);
-        double ema26 = calculateEMA(prices, 26);
-        double macdLine = ema12 - ema26;
+        double fast = 2.0 / (12 + 1);
+        double slow = 2.0 / (26 + 1);
+        double sig = 2.0 / (9 + 1);
 
-        // Signal line is 9-day EMA of MACD line
-        // Simplified: we'll use a basic average for signal
-        double signalLine = macdLine * 0.8; // Approximation
+        double ema12 = prices[0];
+        double ema26 = prices[0];
+        double signalLine = ema12 - ema26;
 
+        for (int i = 1; i < prices.length; i++) {
+            ema12 = (prices[i] - ema12) * fast + ema12;
+            ema26 = (prices[i] - ema26) * slow + ema26;
+            signalLine = ((ema12 - ema26) - signalLine) * sig + signalLine;
+        }
+
+        double macdLine = ema12 - ema26;
         double histogram = macdLine - signalLine;
 
         return new double[]{macdLine, signalLine, histogram};
     }
 
+    private static double[] toArray(List<Double> values) {
+        double[] out = new double[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = values.get(i);
+        }
+        return out;
+    }
+
     /**
      * Analyze trend based on multiple timeframes
      * Returns trend strength: -100 to +100
@@ -171,6 +224,9 @@ public class TechnicalIndicators {
     /**
      * MAIN SIGNAL GENERATOR
      * Professional multi-indicator signal
+     *
+     * Builds the full narrative; use {@link #packSignal} on hot paths and call this
+     * only when a human-readable analysis is actually requested.
      */
     public static SignalResult generateSignal(
             double rsi,
@@ -179,44 +235,113 @@ public class TechnicalIndicators {
             double volumeMultiplier,
             double change24h
     ) {
+        long packed = packSignal(rsi, macd[2], trendScore, volumeMultiplier);
+        SignalCode code = packedSignal(packed);
+
+        return new SignalResult(
+            code.label,
+            code.color,
+            packedConfidence(packed),
+            describe(rsi, macd[2], trendScore, volumeMultiplier),
+            rsi,
+            trendScore,
+            code.recommendation
+        );
+    }
+
+    /**
+     * Raw signal score (RSI 40%, MACD 30%, trend 20%, volume 10%).
+     * Pure arithmetic, no allocation.
+     */
+    public static int signalScore(double rsi, double macdHistogram, int trendScore, double volumeMultiplier) {
+        return signalScore(SignalThresholds.DEFAULT, rsi, macdHistogram, trendScore, volumeMultiplier);
+    }
+
+    /**
+     * Same score with configurable RSI / MACD thresholds (used by the backtester).
+     */
+    public static int signalScore(SignalThresholds t, double rsi, double macdHistogram,
+                                  int trendScore, double volumeMultiplier) {
         int signalScore = 0;
-        StringBuilder analysis = new StringBuilder();
 
         // RSI Analysis (40% weight)
+        if (rsi <= t.rsiOversold()) signalScore += 40;
+        else if (rsi <= t.rsiLow()) signalScore += 20;
+        else if (rsi >= t.rsiOverbought()) signalScore -= 40;
+        else if (rsi >= t.rsiHigh()) signalScore -= 20;
+
+        // MACD Analysis (30% weight)
+        if (macdHistogram > t.macdStrong()) signalScore += 30;
+        else if (macdHistogram > 0) signalScore += 15;
+        else if (macdHistogram < -t.macdStrong()) signalScore -= 30;
+        else signalScore -= 15;
+
+        // Trend Analysis (20% weight)
+        signalScore += (trendScore * 20) / 100;
+
+        // Volume Analysis (10% weight)
+        if (volumeMultiplier > 2.0) signalScore += 10;
+        else if (volumeMultiplier > 1.5) signalScore += 5;
+        else if (volumeMultiplier < 0.5) signalScore -= 5;
+
+        return signalScore;
+    }
+
+    /**
+     * Hot-path signal: score, confidence and {@link SignalCode} packed in one long.
+     * Layout: bits 0-31 score, 32-39 confidence, 40-42 signal ordinal.
+     */
+    public static long packSignal(double rsi, double macdHistogram, int trendScore, double volumeMultiplier) {
+        return pack(signalScore(rsi, macdHistogram, trendScore, volumeMultiplier));
+    }
+
+    public static long pack(int signalScore) {
+        int confidence = Math.min(100, Math.abs(signalScore));
+        int code = SignalCode.fromScore(signalScore).ordinal();
+        return (signalScore & 0xFFFFFFFFL) | ((long) confidence << 32) | ((long) code << 40);
+    }
+
+    public static int packedScore(long packed) {
+        return (int) packed;
+    }
+
+    public static int packedConfidence(long packed) {
+        return (int) ((packed >>> 32) & 0xFF);
+    }
+
+    public static SignalCode packedSignal(long packed) {
+        return SignalCode.ofOrdinal((int) ((packed >>> 40) & 0x7));
+    }
+
+    /**
+     * Human-readable explanation of the inputs, e.g.
+     * "RSI low (35.2), MACD weak bullish, uptrend, normal volume".
+     */
+    public static String describe(double rsi, double macdHistogram, int trendScore, double volumeMultiplier) {
+        StringBuilder analysis = new StringBuilder();
+
         if (rsi <= 30) {
-            signalScore += 40;
             analysis.append("RSI oversold (").append(String.format("%.1f", rsi)).append("), ");
         } else if (rsi <= 40) {
-            signalScore += 20;
             analysis.append("RSI low (").append(String.format("%.1f", rsi)).append("), ");
         } else if (rsi >= 70) {
-            signalScore -= 40;
             analysis.append("RSI overbought (").append(String.format("%.1f", rsi)).append("), ");
         } else if (rsi >= 60) {
-            signalScore -= 20;
             analysis.append("RSI high (").append(String.format("%.1f", rsi)).append("), ");
         } else {
             analysis.append("RSI neutral (").append(String.format("%.1f", rsi)).append("), ");
         }
 
-        // MACD Analysis (30% weight)
-        double macdHistogram = macd[2];
         if (macdHistogram > 0.5) {
-            signalScore += 30;
             analysis.append("MACD bullish, ");
         } else if (macdHistogram > 0) {
-            signalScore += 15;
             analysis.append("MACD weak bullish, ");
         } else if (macdHistogram < -0.5) {
-            signalScore -= 30;
             analysis.append("MACD bearish, ");
         } else {
-            signalScore -= 15;
             analysis.append("MACD weak bearish, ");
         }
 
-        // Trend Analysis (20% weight)
-        signalScore += (trendScore * 20) / 100;
         if (trendScore > 50) {
             analysis.append("strong uptrend, ");
         } else if (trendScore > 20) {
@@ -229,56 +354,16 @@ public class TechnicalIndicators {
             analysis.append("sideways, ");
         }
 
-        // Volume Analysis (10% weight)
         if (volumeMultiplier > 2.0) {
-            signalScore += 10;
             analysis.append("high volume");
         } else if (volumeMultiplier > 1.5) {
-            signalScore += 5;
             analysis.append("above avg volume");
         } else if (volumeMultiplier < 0.5) {
-            signalScore -= 5;
             analysis.append("low volume");
         } else {
             analysis.append("normal volume");
         }
 
-        // Generate final signal
-        String signal;
-        String color;
-        String recommendation;
-        int confidence = Math.min(100, Math.abs(signalScore));
-
-        if (signalScore >= 60) {
-            signal = "STRONG BUY";
-            color = "#00ff41";
-            recommendation = "Excellent entry point. Consider buying.";
-        } else if (signalScore >= 30) {
-            signal = "BUY";
-            color = "#2ecc71";
-            recommendation = "Good opportunity. Watch for confirmation.";
-        } else if (signalScore >= -30) {
-            signal = "NEUTRAL";
-            color = "#95a5a6";
-            recommendation = "Wait and observe. No clear signal.";
-        } else if (signalScore >= -60) {
-            signal = "SELL";
-            color = "#ff6b6b";
-            recommendation = "Consider taking profits or reducing position.";
-        } else {
-            signal = "STRONG SELL";
-            color = "#ff0000";
-            recommendation = "High risk. Consider exiting position.";
-        }
-
-        return new SignalResult(
-            signal,
-            color,
-            confidence,
-            analysis.toString(),
-            rsi,
-            trendScore,
-            recommendation
-        );
+        return analysis.toString();
     }
 }
@@ -0,0 +1,94 @@
+package com.example.kriptobot;
+
+import java.util.Arrays;
+
+/**
+ * Eşiğe göre sıralı alarm listesi: paralel primitive diziler (eşik, alarm id).
+ * - Ekleme/silme ikili arama + tek arraycopy; eşit eşikler eklenme sırasıyla durur
+ * - Bir refresh'te geçilen eşikler dizide bitişik bir aralıktır: iki ikili arama ile bulunur ve tek seferde çıkarılır
+ *
+ * Thread-safe değil; AlertEngine kilidi altında kullanılır.
+ */
+final class ThresholdIndex {
+
+    private static final long[] NONE = new long[0];
+
+    private double[] thresholds = new double[4];
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void add(double threshold, long id) {
+        if (size == thresholds.length) {
+            thresholds = Arrays.copyOf(thresholds, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int at = upperBound(threshold);
+        System.arraycopy(thresholds, at, thresholds, at + 1, size - at);
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        thresholds[at] = threshold;
+        ids[at] = id;
+        size++;
+    }
+
+    boolean remove(double threshold, long id) {
+        for (int i = lowerBound(threshold); i < size && thresholds[i] == threshold; i++) {
+            if (ids[i] == id) {
+                take(i, i + 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fiyat {@code from}'dan {@code to}'ya çıktıysa "üstüne çıkınca" alarmları: from &lt;= eşik &lt; to.
+     * Bulunanlar indeksten çıkarılır (tek seferlik alarm).
+     */
+    long[] takeCrossedUp(double from, double to) {
+        if (!(to > from)) return NONE;
+        return take(lowerBound(from), lowerBound(to));
+    }
+
+    /**
+     * Fiyat {@code from}'dan {@code to}'ya indiyse "altına inince" alarmları: to &lt; eşik &lt;= from.
+     */
+    long[] takeCrossedDown(double from, double to) {
+        if (!(to < from)) return NONE;
+        return take(upperBound(to), upperBound(from));
+    }
+
+    /** İlk eşik &gt;= x. */
+    int lowerBound(double x) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (thresholds[mid] < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** İlk eşik &gt; x. */
+    int upperBound(double x) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (thresholds[mid] <= x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private long[] take(int from, int to) {
+        if (from >= to) return NONE;
+        long[] out = Arrays.copyOfRange(ids, from, to);
+        System.arraycopy(thresholds, to, thresholds, from, size - to);
+        System.arraycopy(ids, to, ids, from, size - to);
+        size -= to - from;
+        return out;
+    }
+}
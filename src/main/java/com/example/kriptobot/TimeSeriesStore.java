@@ -0,0 +1,345 @@
+package com.example.kriptobot;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fiyat ve sinyal geçmişi için append-only, memory-mapped zaman serisi deposu.
+ *
+ * Her seri (sembol) ayrı bir dosya: 16 byte header + sabit genişlikte kayıtlar.
+ * Kayıtlar zamana göre sıralı eklendiği için aralık sorgusu binary search + ardışık okuma.
+ * Compaction: ham çözünürlük {@code raw-retention} kadar tutulur, daha eskisi saatlik
+ * tek kayda indirilir, {@code retention}'dan eskisi silinir.
+ */
+@Component
+public class TimeSeriesStore {
+
+    /** Fear &amp; Greed serisinin adı (coin sembolleriyle çakışmaz). */
+    public static final String FEAR_GREED = "_FNG";
+
+    // Header: magic(4) version(4) count(8)
+    private static final int MAGIC = 0x4B545331; // "KTS1"
+    private static final int HEADER = 16;
+    // Kayıt: ts(8) price(8) change24h(4) score(2) signal(1) confidence(1)
+    static final int RECORD = 24;
+    private static final int INITIAL_RECORDS = 1024;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final Duration rawRetention;
+    private final Duration retention;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public TimeSeriesStore(
+            @Value("${kriptobot.tsdb.enabled:true}") boolean enabled,
+            @Value("${kriptobot.tsdb.dir:data/tsdb}") String dir,
+            @Value("${kriptobot.tsdb.raw-retention:P7D}") Duration rawRetention,
+            @Value("${kriptobot.tsdb.retention:P365D}") Duration retention) {
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.rawRetention = rawRetention;
+        this.retention = retention;
+    }
+
+    @EventListener
+    public void onMarketRefreshed(MarketRefreshedEvent event) {
+        if (!enabled) return;
+        MarketSnapshot snapshot = event.current();
+        MarketTable t = snapshot.table();
+        long ts = snapshot.fetchedAt().toEpochMilli();
+        try {
+            for (int i = 0; i < t.size(); i++) {
+                // Aynı sembolü taşıyan ikinci coin seriyi bozmasın
+                if (snapshot.row(t.symbol[i]) != i) continue;
+                append(t.symbol[i], ts, t.price[i], t.change24h[i], t.signal[i]);
+            }
+        } catch (IOException e) {
+            System.err.println("TSDB append ERROR: " + e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onFearGreedRefreshed(FearGreedRefreshedEvent event) {
+        if (!enabled) return;
+        FearGreedService.FearGreedData d = event.data();
+        try {
+            append(FEAR_GREED, d.timestamp * 1000, d.value, 0, 0);
+        } catch (IOException e) {
+            System.err.println("TSDB append ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kayıt ekler. Aynı zaman damgası son kayıtla aynıysa (ör. mumlar gelince yeniden puanlanan
+     * snapshot) son kaydın üzerine yazar; daha eski zaman damgaları yok sayılır.
+     */
+    public void append(String name, long tsMillis, double price, double change24h, long packedSignal) throws IOException {
+        series(name).append(tsMillis, price, change24h, packedSignal);
+    }
+
+    /**
+     * [from, to] aralığındaki kayıtlar; en fazla {@code maxPoints} nokta (eşit adımla seyreltilir).
+     */
+    public Range query(String name, long fromMillis, long toMillis, int maxPoints) throws IOException {
+        Series s = existing(name);
+        if (s == null) return Range.EMPTY;
+        return s.query(fromMillis, toMillis, Math.max(1, maxPoints));
+    }
+
+    @Scheduled(fixedDelayString = "${kriptobot.tsdb.compaction-interval:PT6H}",
+               initialDelayString = "${kriptobot.tsdb.compaction-interval:PT6H}")
+    void compactAll() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        long rawCutoff = now - rawRetention.toMillis();
+        long dropCutoff = now - retention.toMillis();
+        int compacted = 0;
+        for (Series s : series.values()) {
+            try {
+                if (s.compact(rawCutoff, dropCutoff)) compacted++;
+            } catch (IOException e) {
+                System.err.println("TSDB compaction ERROR (" + s.file + "): " + e.getMessage());
+            }
+        }
+        System.out.println("TSDB compaction: " + compacted + "/" + series.size() + " series rewritten");
+    }
+
+    @PreDestroy
+    void flush() {
+        for (Series s : series.values()) {
+            s.force();
+        }
+    }
+
+    private Series series(String name) throws IOException {
+        try {
+            return series.computeIfAbsent(name, n -> {
+                try {
+                    return Series.open(dir.resolve(fileName(n)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Series existing(String name) throws IOException {
+        Series s = series.get(name);
+        if (s != null) return s;
+        if (!Files.exists(dir.resolve(fileName(name)))) return null;
+        return series(name);
+    }
+
+    /** Dosya adı için güvenli karakterler; diğerleri hex'e çevrilir. */
+    static String fileName(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 3);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+                sb.append(c);
+            } else {
+                sb.append('%').append(Integer.toHexString(c));
+            }
+        }
+        return sb.append(".ts").toString();
+    }
+
+    /**
+     * Sorgu sonucu, kolon bazlı.
+     */
+    public record Range(long[] time, double[] price, float[] change24h, byte[] signal, int[] confidence) {
+        static final Range EMPTY = new Range(new long[0], new double[0], new float[0], new byte[0], new int[0]);
+
+        public int size() {
+            return time.length;
+        }
+    }
+
+    /**
+     * Tek seri dosyası. Mapping dosya kanalı kapatıldıktan sonra da geçerli kalır,
+     * bu yüzden binlerce seri için açık file descriptor tutulmaz.
+     */
+    static final class Series {
+        final Path file;
+        // Buffer ve kayıt sayısı birlikte yayınlanır: compact dosyayı kısaltınca okuyucu
+        // eski (büyük) sayıyı yeni buffer'la eşleştirip sıfır kayıt okumasın
+        private volatile View view;
+
+        private record View(MappedByteBuffer buf, long count) {
+        }
+
+        private Series(Path file, MappedByteBuffer buf, long count) {
+            this.file = file;
+            this.view = new View(buf, count);
+        }
+
+        static Series open(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            boolean fresh = !Files.exists(file) || Files.size(file) < HEADER;
+            long size = fresh ? HEADER + (long) INITIAL_RECORDS * RECORD : Files.size(file);
+            MappedByteBuffer buf = map(file, size);
+            long count;
+            if (fresh) {
+                buf.putInt(0, MAGIC);
+                buf.putInt(4, 1);
+                buf.putLong(8, 0);
+                count = 0;
+            } else {
+                if (buf.getInt(0) != MAGIC) {
+                    throw new IOException("Not a time series file: " + file);
+                }
+                count = buf.getLong(8);
+            }
+            return new Series(file, buf, count);
+        }
+
+        private static MappedByteBuffer map(Path file, long size) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        synchronized void append(long ts, double price, double change24h, long packedSignal) throws IOException {
+            View v = view;
+            MappedByteBuffer buf = v.buf();
+            long n = v.count();
+            long slot = n;
+            if (n > 0) {
+                long last = buf.getLong(offset(n - 1));
+                if (ts < last) return;
+                if (ts == last) slot = n - 1;
+            }
+            if (offset(slot + 1) > buf.capacity()) {
+                buf.force();
+                buf = map(file, HEADER + Math.max(slot + 1, n * 2) * RECORD);
+                view = new View(buf, n);
+            }
+            int off = offset(slot);
+            buf.putLong(off, ts);
+            buf.putDouble(off + 8, price);
+            buf.putFloat(off + 16, (float) change24h);
+            buf.putShort(off + 20, (short) TechnicalIndicators.packedScore(packedSignal));
+            buf.put(off + 22, (byte) TechnicalIndicators.packedSignal(packedSignal).ordinal());
+            buf.put(off + 23, (byte) TechnicalIndicators.packedConfidence(packedSignal));
+            if (slot == n) {
+                // Header'daki sayaç en son yazılır: yarım kalan kayıt okunmaz
+                buf.putLong(8, n + 1);
+                view = new View(buf, n + 1);
+            }
+        }
+
+        Range query(long from, long to, int maxPoints) {
+            View v = view;
+            long n = v.count();
+            ByteBuffer b = v.buf();
+            long lo = firstAfter(b, n, from, false);
+            long hi = firstAfter(b, n, to, true); // exclusive
+            long total = Math.max(0, hi - lo);
+            if (total == 0) return Range.EMPTY;
+
+            long step = (total + maxPoints - 1) / maxPoints;
+            int points = (int) ((total + step - 1) / step);
+            long[] time = new long[points];
+            double[] price = new double[points];
+            float[] change = new float[points];
+            byte[] signal = new byte[points];
+            int[] confidence = new int[points];
+
+            for (int k = 0; k < points; k++) {
+                // Seyreltirken her adımın son kaydı alınır; son nokta hep en güncel kayıt
+                long idx = Math.min(hi - 1, lo + (k + 1) * step - 1);
+                int off = offset(idx);
+                time[k] = b.getLong(off);
+                price[k] = b.getDouble(off + 8);
+                change[k] = b.getFloat(off + 16);
+                signal[k] = b.get(off + 22);
+                confidence[k] = b.get(off + 23) & 0xFF;
+            }
+            return new Range(time, price, change, signal, confidence);
+        }
+
+        /**
+         * Eski kayıtları saatlik tek kayda indirir, çok eskileri siler. Değişiklik yoksa dosyaya dokunmaz.
+         */
+        synchronized boolean compact(long rawCutoff, long dropCutoff) throws IOException {
+            View v = view;
+            long n = v.count();
+            if (n == 0) return false;
+            ByteBuffer b = v.buf();
+
+            Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+            MappedByteBuffer out = map(tmp, HEADER + Math.max(n, INITIAL_RECORDS) * RECORD);
+            out.putInt(0, MAGIC);
+            out.putInt(4, 1);
+
+            long written = 0;
+            for (long i = 0; i < n; i++) {
+                long ts = b.getLong(offset(i));
+                if (ts < dropCutoff) continue;
+                if (ts < rawCutoff && i + 1 < n) {
+                    long nextTs = b.getLong(offset(i + 1));
+                    // Aynı saat içinde sonraki kayıt varsa bunu atla (saatin son kaydı kalır)
+                    if (nextTs < rawCutoff && nextTs / 3_600_000 == ts / 3_600_000) continue;
+                }
+                copyRecord(b, offset(i), out, offset(written));
+                written++;
+            }
+
+            if (written == n) {
+                Files.deleteIfExists(tmp);
+                return false;
+            }
+            out.putLong(8, written);
+            out.force();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            view = new View(out, written);
+            return true;
+        }
+
+        void force() {
+            view.buf().force();
+        }
+
+        private static void copyRecord(ByteBuffer from, int fromOff, ByteBuffer to, int toOff) {
+            to.putLong(toOff, from.getLong(fromOff));
+            to.putLong(toOff + 8, from.getLong(fromOff + 8));
+            to.putLong(toOff + 16, from.getLong(fromOff + 16));
+        }
+
+        /** inclusive=false: ts'ye eşit/büyük ilk kayıt; inclusive=true: ts'den büyük ilk kayıt. */
+        private static long firstAfter(ByteBuffer b, long n, long ts, boolean inclusive) {
+            long lo = 0, hi = n;
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                long t = b.getLong(offset(mid));
+                if (t < ts || (inclusive && t == ts)) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static int offset(long index) {
+            return Math.toIntExact(HEADER + index * RECORD);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.kriptobot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Boyutu sınırlı, TTL'li LRU cache; aynı anahtar için eşzamanlı istekler tek hesaplamayı paylaşır.
+ * - En fazla {@code maxEntries} kayıt; dolunca en uzun süredir okunmayan atılır
+ * - Kayıt hesaplama bittikten {@code ttlNanos} sonra geçersiz; bir sonraki istek yeniden hesaplar
+ * - Hesaplama devam ederken gelenler aynı future'ı bekler (request coalescing)
+ * - Hata (Error dahil) veya null sonuç cache'te kalmaz; bekleyenler hatayı alır
+ *
+ * Kilit sadece map işlemleri için tutulur; loader kilit dışında, ilk isteyen thread'de çalışır.
+ */
+final class TtlLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    TtlLruCache(int maxEntries, long ttlNanos) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttlNanos;
+        // accessOrder = true: get() kaydı sona taşır, eldest = LRU
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > TtlLruCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cache'teki taze değeri, devam eden hesaplamayı ya da {@code loader}'ın yeni sonucunu döner.
+     *
+     * @return sonucu taşıyan future; loader'ı çalıştıran çağıran için zaten tamamlanmış olur
+     */
+    CompletableFuture<V> get(K key, Function<K, V> loader) {
+        CompletableFuture<V> mine;
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            // Devam eden hesaplama TTL'e bakılmadan paylaşılır
+            if (e != null && (!e.value.isDone() || System.nanoTime() - e.createdAt < ttlNanos)) {
+                return e.value;
+            }
+            mine = new CompletableFuture<>();
+            map.put(key, new Entry<>(mine, System.nanoTime()));
+        }
+
+        try {
+            V value = loader.apply(key);
+            if (value == null) remove(key, mine);
+            else stamp(key, mine);
+            mine.complete(value);
+        } catch (Throwable e) {
+            // Error'da da kayıt kalırsa tamamlanmayan future'ı bekleyenler sonsuza kadar bloklanır
+            remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    synchronized void clear() {
+        map.clear();
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+
+    // TTL hesaplamanın bittiği andan sayılır; tamamlanmadan önce çağrılır, arada gelen future'ı paylaşır
+    private synchronized void stamp(K key, CompletableFuture<V> value) {
+        Entry<V> e = map.get(key);
+        if (e != null && e.value == value) map.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    private synchronized void remove(K key, CompletableFuture<V> value) {
+        Entry<V> e = map.get(key);
+        if (e != null && e.value == value) map.remove(key);
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, long createdAt) {
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.kriptobot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tüm dış API çağrılarının geçtiği ortak HTTP katmanı.
+ * - Tek {@link HttpClient} (virtual thread executor, bağlantılar host başına yeniden kullanılır)
+ * - Provider başına adaptif {@link RateBudget}: 429'da yavaşlar, Retry-After kadar susar
+ * - Provider başına {@link CircuitBreaker}: açıkken istek gitmez, çağıran hemen fallback'e düşer
+ * - Provider başına eşzamanlı istek sınırı; fazlası sırada bekler
+ * - 429 / 5xx için Retry-After veya jitter'lı exponential backoff ile tekrar
+ * - Metrikler: provider + status başına cevap sayacı ({@code kriptobot.upstream.responses}),
+ *   devre durumu / anlık hız / eşzamanlı istek gauge'ları
+ *
+ * Cevap gövdesini okumak ve kapatmak çağıranın işi; 200 dışı cevaplar da (retry'lar bittikten sonra)
+ * hata değil cevap olarak döner. Future sadece bağlantı hatasında veya devre açıkken hatayla biter.
+ */
+@Component
+public class UpstreamClient {
+
+    public enum Provider {
+        COINGECKO, BINANCE, ALTERNATIVE_ME
+    }
+
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(2);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+
+    private final ExecutorService executor;
+    private final HttpClient http;
+    private final Map<Provider, Host> hosts = new EnumMap<>(Provider.class);
+    private final MeterRegistry metrics;
+
+    public UpstreamClient(
+            MeterRegistry metrics,
+            @Value("${kriptobot.upstream.connect-timeout:PT10S}") Duration connectTimeout,
+            @Value("${kriptobot.upstream.max-in-flight:16}") int maxInFlight,
+            @Value("${kriptobot.upstream.failure-threshold:5}") int failureThreshold,
+            @Value("${kriptobot.upstream.open-duration:PT2M}") Duration openDuration,
+            @Value("${kriptobot.upstream.half-open-probes:2}") int halfOpenProbes,
+            @Value("${kriptobot.coins.requests-per-minute:10}") int coinGeckoPerMinute,
+            @Value("${kriptobot.coins.burst:3}") int coinGeckoBurst,
+            @Value("${kriptobot.coins.max-retries:3}") int coinGeckoRetries,
+            @Value("${kriptobot.binance.requests-per-minute:500}") int binancePerMinute,
+            @Value("${kriptobot.binance.burst:20}") int binanceBurst,
+            @Value("${kriptobot.binance.max-retries:1}") int binanceRetries) {
+        this.metrics = metrics;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upstream-http-", 0).factory());
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+
+        hosts.put(Provider.COINGECKO, new Host(Provider.COINGECKO,
+                new RateBudget(coinGeckoPerMinute, coinGeckoBurst),
+                new CircuitBreaker(failureThreshold, openDuration, halfOpenProbes), coinGeckoRetries, maxInFlight));
+        hosts.put(Provider.BINANCE, new Host(Provider.BINANCE,
+                new RateBudget(binancePerMinute, binanceBurst),
+                new CircuitBreaker(failureThreshold, openDuration, halfOpenProbes), binanceRetries, maxInFlight));
+        // alternative.me: 10 dakikada bir tek istek; limit sadece hatalı döngülere karşı
+        hosts.put(Provider.ALTERNATIVE_ME, new Host(Provider.ALTERNATIVE_ME,
+                new RateBudget(10, 2),
+                new CircuitBreaker(failureThreshold, openDuration, halfOpenProbes), 1, 2));
+
+        for (Host host : hosts.values()) {
+            Tags tags = Tags.of("provider", host.tag);
+            Gauge.builder("kriptobot.upstream.circuit", host, h -> h.breaker.state().ordinal())
+                    .description("0 = closed, 1 = open, 2 = half-open")
+                    .tags(tags).register(metrics);
+            Gauge.builder("kriptobot.upstream.rate", host, h -> h.budget.perMinute())
+                    .baseUnit("requests.per.minute").tags(tags).register(metrics);
+            Gauge.builder("kriptobot.upstream.in.flight", host, Host::inFlight)
+                    .tags(tags).register(metrics);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ortak header'larla GET isteği (User-Agent, Accept: JSON).
+     */
+    public static HttpRequest get(String url, Duration timeout) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    /**
+     * İsteği provider'ın limit / devre kesici / retry kurallarıyla gönderir.
+     *
+     * @return devre açıksa {@link CircuitOpenException} ile hemen biten future
+     */
+    public CompletableFuture<HttpResponse<InputStream>> send(Provider provider, HttpRequest request) {
+        Host host = hosts.get(provider);
+        if (!host.breaker.tryAcquire()) {
+            host.count("circuit_open");
+            return CompletableFuture.failedFuture(new CircuitOpenException(provider));
+        }
+        return attempt(host, request, 0);
+    }
+
+    /**
+     * Aynı mantıksal işin istekleri (ör. market sayfaları) devre kesiciden tek izinle geçer.
+     * HALF_OPEN'da deneme hakkı ilk isteğe değil tüm gruba verilir; diğerleri reddedilip işi düşürmez.
+     *
+     * @return {@code requests} sırasıyla cevaplar; devre açıksa hepsi {@link CircuitOpenException} ile biter
+     */
+    public List<CompletableFuture<HttpResponse<InputStream>>> sendAll(Provider provider, List<HttpRequest> requests) {
+        Host host = hosts.get(provider);
+        if (!host.breaker.tryAcquire()) {
+            host.count("circuit_open");
+            CompletableFuture<HttpResponse<InputStream>> open = CompletableFuture.failedFuture(new CircuitOpenException(provider));
+            return requests.stream().map(r -> open).toList();
+        }
+        return requests.stream().map(r -> attempt(host, r, 0)).toList();
+    }
+
+    /**
+     * Devre kapalı veya deneme isteğine hazır mı; false ise {@link #send} hemen hata döner.
+     */
+    public boolean isAvailable(Provider provider) {
+        return hosts.get(provider).breaker.state() != CircuitBreaker.State.OPEN;
+    }
+
+    /** /api/health için provider başına devre durumu, anlık hız ve kuyruk. */
+    public Map<String, Object> status() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Host host : hosts.values()) {
+            out.put(host.tag, host.status());
+        }
+        return out;
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> attempt(Host host, HttpRequest req, int attempt) {
+        return host.budget.reserve()
+                .thenCompose(v -> host.acquire())
+                .thenCompose(v -> http.sendAsync(req, HttpResponse.BodyHandlers.ofInputStream())
+                        .whenComplete((res, err) -> host.release()))
+                .handle((res, err) -> {
+                    if (err != null) {
+                        host.count("error");
+                        host.failed();
+                        return CompletableFuture.<HttpResponse<InputStream>>failedFuture(err);
+                    }
+                    return handle(host, req, attempt, res);
+                })
+                .thenCompose(f -> f);
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> handle(Host host, HttpRequest req, int attempt,
+                                                                HttpResponse<InputStream> res) {
+        int status = res.statusCode();
+        host.count(status);
+        boolean retryable = status == 429 || status >= 500;
+
+        if (!retryable) {
+            // 403 / 451: bölgesel engel veya WAF; tekrar denemek işe yaramaz, devre için hata sayılır
+            if (status == 403 || status == 451) {
+                host.failed();
+            } else {
+                host.succeeded();
+            }
+            return CompletableFuture.completedFuture(res);
+        }
+
+        Duration wait = backoff(res, attempt);
+        if (status == 429) {
+            host.budget.slowDown();
+            host.budget.penalize(wait);
+        }
+        if (attempt >= host.maxRetries) {
+            host.failed();
+            return CompletableFuture.completedFuture(res);
+        }
+
+        discard(res);
+        System.err.println((status == 429 ? "RATE LIMIT" : "HTTP " + status) + " from " + host.provider +
+                " " + req.uri().getPath() + ", retrying in " + wait.toMillis() + "ms");
+        return CompletableFuture.runAsync(() -> {}, RateBudget.delayed(wait.toNanos()))
+                .thenCompose(v -> attempt(host, req, attempt + 1));
+    }
+
+    private static void discard(HttpResponse<InputStream> res) {
+        try (InputStream body = res.body()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+            // bağlantı zaten kapanacak
+        }
+    }
+
+    static Duration backoff(HttpResponse<?> res, int attempt) {
+        Duration retryAfter = res.headers().firstValue("Retry-After")
+                .map(UpstreamClient::parseSeconds)
+                .orElse(null);
+        if (retryAfter != null) {
+            return retryAfter.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : retryAfter;
+        }
+        long base = BASE_BACKOFF.toMillis() << Math.min(attempt, 5);
+        long jitter = ThreadLocalRandom.current().nextLong(base / 2 + 1);
+        return Duration.ofMillis(Math.min(MAX_BACKOFF.toMillis(), base + jitter));
+    }
+
+    private static Duration parseSeconds(String value) {
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Provider başına durum: limit, devre, eşzamanlı istek sayacı ve bekleme kuyruğu.
+     */
+    private final class Host {
+        final Provider provider;
+        final String tag;
+        final RateBudget budget;
+        final CircuitBreaker breaker;
+        final int maxRetries;
+        final int maxInFlight;
+
+        private final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private int inFlight;
+        // Status başına sayaç bir kez oluşturulur; sıcak yolda sadece map lookup + increment
+        private final Map<Integer, Counter> byStatus = new ConcurrentHashMap<>();
+        private final Map<String, Counter> byOutcome = new ConcurrentHashMap<>();
+
+        Host(Provider provider, RateBudget budget, CircuitBreaker breaker, int maxRetries, int maxInFlight) {
+            this.provider = provider;
+            this.tag = provider.name().toLowerCase(Locale.ROOT);
+            this.budget = budget;
+            this.breaker = breaker;
+            this.maxRetries = Math.max(0, maxRetries);
+            this.maxInFlight = Math.max(1, maxInFlight);
+        }
+
+        synchronized CompletableFuture<Void> acquire() {
+            if (inFlight < maxInFlight) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> slot = new CompletableFuture<>();
+            waiting.add(slot);
+            return slot;
+        }
+
+        // Slot sıradakine devredilir; sayaç sadece kuyruk boşsa düşer
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) inFlight--;
+            }
+            if (next != null) next.completeAsync(() -> null);
+        }
+
+        void count(int status) {
+            byStatus.computeIfAbsent(status, s -> counter(String.valueOf(s))).increment();
+        }
+
+        void count(String outcome) {
+            byOutcome.computeIfAbsent(outcome, this::counter).increment();
+        }
+
+        private Counter counter(String status) {
+            return Counter.builder("kriptobot.upstream.responses")
+                    .tags("provider", tag, "status", status)
+                    .register(metrics);
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        void succeeded() {
+            breaker.onSuccess();
+            budget.speedUp();
+        }
+
+        void failed() {
+            if (breaker.onFailure()) {
+                System.err.println("Circuit OPEN for " + provider);
+            }
+        }
+
+        synchronized Map<String, Object> status() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("circuit", breaker.state().name());
+            out.put("requestsPerMinute", Math.round(budget.perMinute()));
+            out.put("inFlight", inFlight);
+            out.put("queued", waiting.size());
+            return out;
+        }
+    }
+
+    /**
+     * Devre açıkken gönderilmeyen isteğin hatası.
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(Provider provider) {
+            super("Circuit open: " + provider);
+        }
+    }
+}
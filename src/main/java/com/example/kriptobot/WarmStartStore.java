@@ -0,0 +1,213 @@
+package com.example.kriptobot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+
+/**
+ * Son başarılı market tablosu + Fear &amp; Greed değeri ve günlük serisinin binary kopyası.
+ *
+ * Her refresh'te atomik olarak (tmp dosya + rename) yazılır, açılışta
+ * CoinService / FearGreedService bunu okuyup ilk isteği upstream'e gitmeden cevaplar.
+ * Seri sayesinde yeniden başlatmada Fear &amp; Greed backfill'i tekrarlanmaz, sadece eksik günler çekilir.
+ * Sürüm 1 dosyaları (serisiz) okunmaya devam eder.
+ */
+@Component
+public class WarmStartStore {
+
+    private static final int MAGIC = 0x4B575331; // "KWS1"
+    private static final int VERSION = 2;
+
+    private final boolean enabled;
+    private final Path file;
+
+    private volatile MarketSnapshot lastMarket;
+    private volatile FearGreedService.FearGreedData lastFearGreed;
+    private volatile FearGreedHistory.Series lastFearGreedHistory;
+
+    // Açılışta bir kere okunur, iki servis de aynı içeriği kullanır
+    private volatile Loaded loaded;
+
+    public WarmStartStore(@Value("${kriptobot.warm-start.enabled:true}") boolean enabled,
+                          @Value("${kriptobot.warm-start.file:data/warm-start.bin}") String file) {
+        this.enabled = enabled;
+        this.file = Path.of(file);
+    }
+
+    /** Dosyadaki market tablosu ve fetch zamanı; yoksa/okunamazsa null. */
+    public synchronized Loaded load() {
+        if (!enabled) return null;
+        if (loaded == null) {
+            loaded = read();
+        }
+        return loaded == Loaded.NONE ? null : loaded;
+    }
+
+    @EventListener
+    public void onMarketRefreshed(MarketRefreshedEvent event) {
+        if (!enabled) return;
+        lastMarket = event.current();
+        write();
+    }
+
+    @EventListener
+    public void onFearGreedRefreshed(FearGreedRefreshedEvent event) {
+        if (!enabled) return;
+        lastFearGreed = event.data();
+        write();
+    }
+
+    /** Fear &amp; Greed serisi değiştiğinde (backfill veya yeni gün) FearGreedService çağırır. */
+    public void saveFearGreedHistory(FearGreedHistory.Series series) {
+        if (!enabled) return;
+        lastFearGreedHistory = series;
+        write();
+    }
+
+    private synchronized void write() {
+        MarketSnapshot market = lastMarket;
+        FearGreedService.FearGreedData fng = lastFearGreed;
+        FearGreedHistory.Series series = lastFearGreedHistory;
+        if (market == null && fng == null && series == null) return;
+        // Henüz canlı gelmeyen kısım için dosyadaki eski içerik korunur
+        Loaded previous = loaded;
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                MarketTable t = market != null ? market.table()
+                        : previous != null && previous.table != null ? previous.table : null;
+                Instant fetchedAt = market != null ? market.fetchedAt()
+                        : previous != null ? previous.fetchedAt : Instant.EPOCH;
+                out.writeLong(fetchedAt.toEpochMilli());
+                writeTable(out, t);
+
+                FearGreedService.FearGreedData f = fng != null ? fng
+                        : previous != null ? previous.fearGreed : null;
+                out.writeBoolean(f != null);
+                if (f != null) {
+                    out.writeInt(f.value);
+                    out.writeUTF(f.classification);
+                    out.writeLong(f.timestamp);
+                }
+
+                FearGreedHistory.Series h = series != null ? series
+                        : previous != null ? previous.fearGreedHistory : null;
+                int n = h == null ? 0 : h.t().length;
+                out.writeInt(n);
+                for (int i = 0; i < n; i++) {
+                    out.writeLong(h.t()[i]);
+                    out.writeByte(h.value()[i]);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Warm start snapshot write ERROR: " + e.getMessage());
+        }
+    }
+
+    private static void writeTable(DataOutputStream out, MarketTable t) throws IOException {
+        int n = t == null ? 0 : t.size();
+        out.writeInt(n);
+        for (int i = 0; i < n; i++) {
+            out.writeUTF(t.id[i] == null ? "" : t.id[i]);
+            out.writeUTF(t.symbol[i]);
+            out.writeDouble(t.price[i]);
+            out.writeDouble(t.marketCap[i]);
+            out.writeDouble(t.volume[i]);
+            out.writeDouble(t.change1h[i]);
+            out.writeDouble(t.change24h[i]);
+            out.writeDouble(t.change7d[i]);
+            out.writeDouble(t.change30d[i]);
+            out.writeDouble(t.rsi[i]);
+            out.writeDouble(t.macdHistogram[i]);
+            out.writeDouble(t.volumeMultiplier[i]);
+            out.writeBoolean(t.candleBacked[i]);
+            out.writeInt(t.trendScore[i]);
+            out.writeLong(t.signal[i]);
+        }
+    }
+
+    private Loaded read() {
+        if (!Files.isRegularFile(file)) return Loaded.NONE;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            int version;
+            if (in.readInt() != MAGIC || (version = in.readInt()) < 1 || version > VERSION) {
+                System.err.println("Warm start snapshot ignored: unknown format " + file);
+                return Loaded.NONE;
+            }
+            Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+
+            int n = in.readInt();
+            MarketTable t = new MarketTable(n);
+            for (int k = 0; k < n; k++) {
+                int i = t.addRow();
+                t.id[i] = in.readUTF();
+                t.symbol[i] = in.readUTF();
+                t.price[i] = in.readDouble();
+                t.marketCap[i] = in.readDouble();
+                t.volume[i] = in.readDouble();
+                t.change1h[i] = in.readDouble();
+                t.change24h[i] = in.readDouble();
+                t.change7d[i] = in.readDouble();
+                t.change30d[i] = in.readDouble();
+                t.rsi[i] = in.readDouble();
+                t.macdHistogram[i] = in.readDouble();
+                t.volumeMultiplier[i] = in.readDouble();
+                t.candleBacked[i] = in.readBoolean();
+                t.trendScore[i] = in.readInt();
+                t.signal[i] = in.readLong();
+            }
+
+            FearGreedService.FearGreedData fng = null;
+            if (in.readBoolean()) {
+                int value = in.readInt();
+                String classification = in.readUTF();
+                long timestamp = in.readLong();
+                fng = new FearGreedService.FearGreedData(value, classification, timestamp);
+            }
+
+            FearGreedHistory.Series series = null;
+            int days = version >= 2 ? in.readInt() : 0;
+            if (days > 0) {
+                long[] times = new long[days];
+                int[] values = new int[days];
+                for (int i = 0; i < days; i++) {
+                    times[i] = in.readLong();
+                    values[i] = in.readUnsignedByte();
+                }
+                series = new FearGreedHistory.Series(times, values);
+            }
+            System.out.println("Warm start: " + n + " coins from " + fetchedAt + (fng != null ? " + fear-greed" : "")
+                    + (series != null ? " + " + days + " fear-greed days" : ""));
+            return new Loaded(n == 0 ? null : t, fetchedAt, fng, series);
+        } catch (IOException e) {
+            System.err.println("Warm start snapshot read ERROR: " + e.getMessage());
+            return Loaded.NONE;
+        }
+    }
+
+    /**
+     * Diskten okunan son durum. table, fearGreed veya fearGreedHistory dosyada yoksa null.
+     */
+    public record Loaded(MarketTable table, Instant fetchedAt, FearGreedService.FearGreedData fearGreed,
+                         FearGreedHistory.Series fearGreedHistory) {
+        static final Loaded NONE = new Loaded(null, Instant.EPOCH, null, null);
+    }
+}
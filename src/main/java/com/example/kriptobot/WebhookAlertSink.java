@@ -0,0 +1,63 @@
+package com.example.kriptobot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bildirimi {@code kriptobot.alerts.webhook-url} adresine JSON olarak POST eder.
+ * Sadece URL tanımlıysa oluşur; 2xx dışı cevap hata sayılır (AlertEngine tekrar dener).
+ */
+@Component
+@ConditionalOnProperty("kriptobot.alerts.webhook-url")
+public class WebhookAlertSink implements AlertSink {
+
+    private final ObjectMapper om;
+    private final URI url;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final HttpClient http;
+
+    public WebhookAlertSink(
+            ObjectMapper om,
+            @Value("${kriptobot.alerts.webhook-url}") String url,
+            @Value("${kriptobot.alerts.webhook-timeout:PT5S}") Duration timeout) {
+        this.om = om;
+        this.url = URI.create(url);
+        this.timeout = timeout;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("alert-webhook-", 0).factory());
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void deliver(AlertEngine.Notification notification) throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(om.writeValueAsBytes(notification)))
+                .build();
+        HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() / 100 != 2) {
+            throw new IOException("Webhook HTTP " + res.statusCode());
+        }
+    }
+}